@@ -11,6 +11,8 @@ import io.transport.sdk.logger.DefaultLogger;
 import io.transport.sdk.logger.Level;
 import io.transport.sdk.logger.Logger;
 import io.transport.sdk.protocol.handler.ReceiveTextHandler;
+import io.transport.sdk.protocol.message.Head.Version;
+import io.transport.sdk.protocol.message.internal.TransportMessage;
 import io.transport.sdk.store.Store;
 import io.transport.sdk.utils.PlatformConstants;
 
@@ -33,6 +35,9 @@ final public class Configuration {
 	private int readIdleSeconds; // 心跳读中断校验时间
 	private int writeIdleSeconds; // 心跳写中断校验时间
 	private int allIdleSeconds; // 心跳读写中断校验时间
+	private short protocolVersion; // 请求协商的协议版本(服务端不支持时降级为V1)
+	private int compressThreshold; // 负载消息压缩阈值(bytes, 负数表示不压缩, 需服务端启用)
+	private int maxContentLength; // 负载消息最大解压长度(bytes, 防止解压炸弹)
 
 	private boolean loggingEnable;
 	private Level level;
@@ -101,6 +106,9 @@ final public class Configuration {
 		this.setReadIdleSeconds(600);
 		this.setWriteIdleSeconds(600);
 		this.setAllIdleSeconds(900);
+		this.setProtocolVersion(Version.Version_2_0_0.getVersion());
+		this.setCompressThreshold(1024);
+		this.setMaxContentLength(TransportMessage.DEFAULT_MAX_CONTENT_LEN);
 
 		this.setLevel(Level.INFO);
 		this.setLoggerImpl(new DefaultLogger(this));
@@ -217,6 +225,30 @@ final public class Configuration {
 		this.allIdleSeconds = allIdleSeconds;
 	}
 
+	public short getProtocolVersion() {
+		return protocolVersion;
+	}
+
+	public void setProtocolVersion(short protocolVersion) {
+		this.protocolVersion = protocolVersion;
+	}
+
+	public int getCompressThreshold() {
+		return compressThreshold;
+	}
+
+	public void setCompressThreshold(int compressThreshold) {
+		this.compressThreshold = compressThreshold;
+	}
+
+	public int getMaxContentLength() {
+		return maxContentLength;
+	}
+
+	public void setMaxContentLength(int maxContentLength) {
+		this.maxContentLength = maxContentLength;
+	}
+
 	public String getAppId() {
 		return appId;
 	}
@@ -312,7 +344,8 @@ final public class Configuration {
 		return "Configuration [logger=" + loggerImpl + ", hostAndPorts=" + getHostAndPorts() + ", reconnectDelay="
 				+ reconnectDelay + ", connecTimeout=" + connecTimeout + ", loginTimeout=" + loginTimeout
 				+ ", soTimeout=" + soTimeout + ", readIdleSeconds=" + readIdleSeconds + ", writeIdleSeconds="
-				+ writeIdleSeconds + ", allIdleSeconds=" + allIdleSeconds + ", loggingEnable=" + loggingEnable
+				+ writeIdleSeconds + ", allIdleSeconds=" + allIdleSeconds + ", protocolVersion=" + protocolVersion
+				+ ", compressThreshold=" + compressThreshold + ", loggingEnable=" + loggingEnable
 				+ ", logLevel=" + level + ", handler=" + handler + ", appId=" + appId + ", appSecret=" + appSecret
 				+ ", groupId=" + groupId + "]";
 	}
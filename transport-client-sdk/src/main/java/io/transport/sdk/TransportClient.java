@@ -4,6 +4,7 @@ import io.transport.sdk.exception.TransportException;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import com.alibaba.fastjson.JSON;
@@ -12,9 +13,11 @@ import io.netty.util.internal.PlatformDependent;
 import io.transport.sdk.exception.TransportAuthenticationException;
 import io.transport.sdk.exception.TransportInitializeException;
 import io.transport.sdk.protocol.message.DeviceInfo.DeviceType;
+import io.transport.sdk.protocol.message.Head;
 import io.transport.sdk.protocol.message.Message;
 import io.transport.sdk.protocol.message.internal.ConnectMessage;
 import io.transport.sdk.protocol.message.internal.DeviceRegistMessage;
+import io.transport.sdk.protocol.message.internal.TransportBatchMessage;
 import io.transport.sdk.protocol.message.internal.TransportMessage;
 import io.transport.sdk.utils.ByteBufs;
 import io.transport.sdk.utils.SubmitTaskExecutors;
@@ -147,6 +150,30 @@ final public class TransportClient {
 		return this.execute(msg, true);
 	}
 
+	/**
+	 * Batch sends messages(many messages are carried in one frame and
+	 * acknowledged by one batch ack, which is suitable for high throughput
+	 * providers)
+	 * 
+	 * @param msgs
+	 *            Transport messages(the fromDeviceId is the current device)
+	 * @return
+	 * @throws TransportException
+	 */
+	public Future<Message> batchcast(List<TransportMessage> msgs) throws TransportException {
+		if (msgs == null || msgs.isEmpty())
+			throw new TransportException("'msgs' is not allowed to be empty.");
+
+		String fromDeviceId = this.configuration.getDeviceId();
+		for (TransportMessage msg : msgs) {
+			if (ByteBufs.isEmpty(msg.getPayload())
+					|| (ByteBufs.isEmpty(msg.getToDeviceId()) && ByteBufs.isEmpty(msg.getToGroupId())))
+				throw new TransportException("'toDeviceId(toGroupId)/payload' is not allowed to be empty.");
+			msg.setFromDeviceId(fromDeviceId);
+		}
+		return this.execute(new TransportBatchMessage(msgs), true);
+	}
+
 	/**
 	 * For registration of WebSocket client connection authentication.
 	 * 
@@ -226,6 +253,11 @@ final public class TransportClient {
 	 */
 	synchronized Future<Message> login() throws TransportException {
 		ConnectMessage msg = new ConnectMessage(this.configuration.getAppId(), this.configuration.getAppSecret());
+		// 请求协商的协议版本(线路格式)
+		msg.getHead().setVersion(this.configuration.getProtocolVersion());
+		// 声明支持负载消息压缩
+		if (this.configuration.getCompressThreshold() >= 0)
+			msg.getHead().setReserve((byte) (msg.getHead().getReserve() | Head.RESERVE_COMPRESSED));
 		msg.getDeviceInfo().setGroupId(this.configuration.getGroupId());
 		msg.getDeviceInfo().setDeviceId(this.configuration.getDeviceId());
 		if (PlatformDependent.isAndroid())
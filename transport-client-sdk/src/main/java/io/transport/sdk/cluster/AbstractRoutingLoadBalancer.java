@@ -1,5 +1,8 @@
 package io.transport.sdk.cluster;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import io.transport.sdk.Configuration;
 import io.transport.sdk.Configuration.HostAndPort;
 
@@ -14,6 +17,10 @@ import io.transport.sdk.Configuration.HostAndPort;
 public abstract class AbstractRoutingLoadBalancer {
 
 	protected Configuration config;
+	/**
+	 * 服务端重定向的节点(按顺序优先尝试, 尝试后即移除)
+	 */
+	private LinkedList<HostAndPort> redirects = new LinkedList<HostAndPort>();
 
 	public AbstractRoutingLoadBalancer(Configuration config) {
 		this.config = config;
@@ -33,4 +40,23 @@ public abstract class AbstractRoutingLoadBalancer {
 	 */
 	public abstract void onConnectFailed(HostAndPort hap);
 
+	/**
+	 * 服务端要求迁移连接(节点下线), 后续重连优先按顺序尝试这些节点
+	 * 
+	 * @param haps
+	 */
+	public synchronized void redirect(List<HostAndPort> haps) {
+		this.redirects.clear();
+		this.redirects.addAll(haps);
+	}
+
+	/**
+	 * 取出下一个待尝试的重定向节点
+	 * 
+	 * @return 无则返回null
+	 */
+	protected synchronized HostAndPort pollRedirect() {
+		return this.redirects.poll();
+	}
+
 }
@@ -31,6 +31,12 @@ public class HashRoutingLoadBalancer extends AbstractRoutingLoadBalancer {
 	@Override
 	public HostAndPort determineCurrentLookupNode() {
 		//
+		// 1.0 优先尝试服务端重定向的节点
+		HostAndPort redirectHap;
+		while ((redirectHap = this.pollRedirect()) != null) {
+			if (this.isRetryNode(redirectHap))
+				return redirectHap;
+		}
 		// 1.1 获取预选节点
 		HostAndPort preHap = null;
 		try {
@@ -9,6 +9,8 @@ import io.transport.sdk.Configuration;
 import io.transport.sdk.protocol.message.Head;
 import io.transport.sdk.protocol.message.Message;
 import io.transport.sdk.protocol.message.MsgType;
+import io.transport.sdk.protocol.message.internal.TransportBatchMessage;
+import io.transport.sdk.protocol.message.internal.TransportMessage;
 
 /**
  * 接收消息解码器
@@ -59,6 +61,11 @@ public class TransportMessageDecoder extends ByteToMessageDecoder {
 
 				// 1.2 设置消息head
 				this.msg.setHead(new Head(totalLen, version, actionId, reserve));
+				// 1.3 负载消息最大解压长度(防止解压炸弹)
+				if (this.msg instanceof TransportMessage)
+					((TransportMessage) this.msg).setMaxContentLength(this.config.getMaxContentLength());
+				else if (this.msg instanceof TransportBatchMessage)
+					((TransportBatchMessage) this.msg).setMaxContentLength(this.config.getMaxContentLength());
 				this.state = State.Body;
 				this.config.getLoggerImpl().debug("解码head: " + this.msg.getHead());
 				// 2.2 解析消息body
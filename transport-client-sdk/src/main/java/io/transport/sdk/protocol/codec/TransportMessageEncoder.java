@@ -3,8 +3,11 @@ package io.transport.sdk.protocol.codec;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.AttributeKey;
 import io.transport.sdk.Configuration;
 import io.transport.sdk.protocol.message.Message;
+import io.transport.sdk.protocol.message.internal.ConnectMessage;
+import io.transport.sdk.protocol.message.internal.TransportMessage;
 
 /**
  * 输出消息编码器
@@ -15,6 +18,14 @@ import io.transport.sdk.protocol.message.Message;
  * @since
  */
 public class TransportMessageEncoder extends MessageToByteEncoder<Message> {
+	/**
+	 * 连接时与服务端协商的协议版本(登录成功后设置)
+	 */
+	final public static AttributeKey<Short> VERSION_KEY = AttributeKey.valueOf("transportProtocolVersion");
+	/**
+	 * 服务端是否启用负载消息压缩(登录成功后设置)
+	 */
+	final public static AttributeKey<Boolean> COMPRESS_KEY = AttributeKey.valueOf("transportCompress");
 	private Configuration config;
 
 	public TransportMessageEncoder(Configuration config) {
@@ -25,6 +36,14 @@ public class TransportMessageEncoder extends MessageToByteEncoder<Message> {
 	@Override
 	protected void encode(ChannelHandlerContext ctx, Message msg, ByteBuf out) throws Exception {
 		try {
+			// 1.0 使用已协商的协议版本(连接消息由其自身携带请求版本)
+			Short version = ctx.channel().attr(VERSION_KEY).get();
+			if (version != null && !(msg instanceof ConnectMessage))
+				msg.getHead().setVersion(version);
+			// 1.0.1 已协商压缩时, 负载消息达到阈值则压缩
+			if (msg instanceof TransportMessage && Boolean.TRUE.equals(ctx.channel().attr(COMPRESS_KEY).get()))
+				((TransportMessage) msg).setCompressThreshold(this.config.getCompressThreshold());
+
 			// 1.1 编码body字节流到ByteBuf
 			msg.writeBodyBufEncoder(out);
 			// ctx.writeAndFlush(out);
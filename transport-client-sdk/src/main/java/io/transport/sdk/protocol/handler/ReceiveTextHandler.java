@@ -1,18 +1,24 @@
 package io.transport.sdk.protocol.handler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import com.alibaba.fastjson.JSON;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.transport.sdk.Configuration.HostAndPort;
+import io.transport.sdk.protocol.codec.TransportMessageEncoder;
+import io.transport.sdk.protocol.message.Head;
 import io.transport.sdk.protocol.message.MsgType;
 import io.transport.sdk.protocol.message.internal.ActiveRespMessage;
 import io.transport.sdk.protocol.message.internal.ConnectRespMessage;
 import io.transport.sdk.protocol.message.internal.DeviceRegistRespMessage;
+import io.transport.sdk.protocol.message.internal.RedirectMessage;
 import io.transport.sdk.protocol.message.internal.ResultRespMessage;
 import io.transport.sdk.protocol.message.internal.TransportMessage;
 import io.transport.sdk.protocol.message.internal.TransportAckRespMessage;
+import io.transport.sdk.protocol.message.internal.TransportBatchAckRespMessage;
 import io.transport.sdk.protocol.message.internal.ResultRespMessage.RetCode;
 
 /**
@@ -54,6 +60,11 @@ public abstract class ReceiveTextHandler extends AbstractMessageHandler {
 
 			// 1.1.1 更新登录认证状态
 			this.client.setAuthState(true);
+			// 保存协商的协议版本(旧版服务端应答为V1)
+			Head head = ((ConnectRespMessage) msg).getHead();
+			ctx.channel().attr(TransportMessageEncoder.VERSION_KEY).set(head.getVersion());
+			// 保存协商的压缩支持
+			ctx.channel().attr(TransportMessageEncoder.COMPRESS_KEY).set(head.hasReserve(Head.RESERVE_COMPRESSED));
 
 			// 1.1.2 更新集群列表信息
 			Set<String> hapTxts = ((ConnectRespMessage) msg).getHostAndPorts();
@@ -79,12 +90,23 @@ public abstract class ReceiveTextHandler extends AbstractMessageHandler {
 			this.processTransportAckResp(ctx, (TransportAckRespMessage) msg);
 			return;
 		}
+		// 1.3.1 客户端向服务端发送批量消息，服务端返回批量Ack消息.
+		else if (msg instanceof TransportBatchAckRespMessage) {
+			for (Integer msgId : ((TransportBatchAckRespMessage) msg).getMsgIds())
+				this.processTransportAckResp(ctx, new TransportAckRespMessage(msgId));
+			return;
+		}
 		// 1.4 设备(Web端)注册结果返回
 		else if (msg instanceof DeviceRegistRespMessage) {
 			getLoggerImpl().info("Registered client(ws) device server successful. " + ctx.channel().remoteAddress()
 					+ ", msg=" + msg);
 			return;
 		}
+		// 1.4.1 服务端节点下线, 迁移连接
+		else if (msg instanceof RedirectMessage) {
+			this.processRedirect(ctx, (RedirectMessage) msg);
+			return;
+		}
 		// 1.5 链路检测
 		if (msg instanceof ActiveRespMessage) {
 			getLoggerImpl().info("On Active. msg=" + msg);
@@ -126,6 +148,30 @@ public abstract class ReceiveTextHandler extends AbstractMessageHandler {
 		return false;
 	}
 
+	/**
+	 * 处理服务端的连接迁移消息(节点下线): 更新集群列表, 下次重连优先尝试重定向的节点,
+	 * 然后主动断开(由channelInactive触发重连).
+	 * 
+	 * @param ctx
+	 * @param msg
+	 */
+	private void processRedirect(ChannelHandlerContext ctx, RedirectMessage msg) {
+		getLoggerImpl().info("Redirected by server. " + ctx.channel().remoteAddress() + ", nodes=" + msg.getHostAndPorts());
+
+		List<HostAndPort> haps = new ArrayList<HostAndPort>();
+		for (String hapTxt : msg.getHostAndPorts()) {
+			HostAndPort hap = HostAndPort.of(hapTxt);
+			if (hap == null)
+				continue;
+			if (!this.getConfig().getHostAndPorts().contains(hap))
+				this.getConfig().getHostAndPorts().add(hap);
+			haps.add(hap);
+		}
+		this.getConfig().getRoutingBalancer().redirect(haps);
+		// 断开当前连接, 重连到重定向节点
+		this.close(ctx);
+	}
+
 	/**
 	 * 处理服务端返回的Ack消息.
 	 * 
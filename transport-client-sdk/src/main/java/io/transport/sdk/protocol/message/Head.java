@@ -16,6 +16,11 @@ public class Head implements Serializable {
 	 * 协议头长度(bytes)
 	 */
 	final public static int HEAD_LEN = 4 + 2 + 1 + 1;
+	/**
+	 * 保留字标识: 负载消息已压缩(deflate)<br/>
+	 * 连接消息(CONNECT/CONNECT_RESP)时表示客户端支持/服务端启用压缩
+	 */
+	final public static byte RESERVE_COMPRESSED = 0x01;
 
 	private int totalLen; // 消息总长度(含消息头及消息体)
 	private short version = Version.Version_1_0_0.getVersion(); // 版本号
@@ -71,6 +76,16 @@ public class Head implements Serializable {
 		this.reserve = reserve;
 	}
 
+	/**
+	 * 是否设置了保留字标识
+	 * 
+	 * @param flag
+	 * @return
+	 */
+	public boolean hasReserve(byte flag) {
+		return (this.reserve & flag) != 0;
+	}
+
 	@Override
 	public String toString() {
 		return "Head [totalLen=" + totalLen + ", version=" + version + ", actionId=" + actionId + ", reserve=" + reserve
@@ -87,7 +102,12 @@ public class Head implements Serializable {
 	 */
 	public static enum Version {
 
-		Version_1_0_0((short) 100);
+		Version_1_0_0((short) 100),
+
+		/**
+		 * 紧凑格式(变长字段), 需连接时与服务端协商
+		 */
+		Version_2_0_0((short) 200);
 
 		private short version;
 
@@ -99,6 +119,16 @@ public class Head implements Serializable {
 			return version;
 		}
 
+		/**
+		 * 是否紧凑格式(V2)
+		 * 
+		 * @param version
+		 * @return
+		 */
+		public static boolean isCompact(short version) {
+			return version >= Version_2_0_0.getVersion();
+		}
+
 	}
 
 }
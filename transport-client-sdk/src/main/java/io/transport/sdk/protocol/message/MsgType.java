@@ -7,8 +7,11 @@ import io.transport.sdk.protocol.message.internal.ConnectMessage;
 import io.transport.sdk.protocol.message.internal.ConnectRespMessage;
 import io.transport.sdk.protocol.message.internal.DeviceRegistMessage;
 import io.transport.sdk.protocol.message.internal.DeviceRegistRespMessage;
+import io.transport.sdk.protocol.message.internal.RedirectMessage;
 import io.transport.sdk.protocol.message.internal.ResultRespMessage;
 import io.transport.sdk.protocol.message.internal.TransportAckRespMessage;
+import io.transport.sdk.protocol.message.internal.TransportBatchAckRespMessage;
+import io.transport.sdk.protocol.message.internal.TransportBatchMessage;
 import io.transport.sdk.protocol.message.internal.TransportMessage;
 
 /**
@@ -60,7 +63,19 @@ public enum MsgType {
 	/**
 	 * 新注册(Web端/前端)设备返回消息（EG：用于Web端ws连接认证）
 	 */
-	DEVICE_REGIS_RESP((byte) 10, DeviceRegistRespMessage.class);
+	DEVICE_REGIS_RESP((byte) 10, DeviceRegistRespMessage.class),
+	/**
+	 * 批量消息推送(一帧携带多条消息)
+	 */
+	TRANSPORT_BATCH((byte) 11, TransportBatchMessage.class),
+	/**
+	 * 批量消息推送结果返回
+	 */
+	TRANSPORT_BATCH_RESP((byte) 12, TransportBatchAckRespMessage.class),
+	/**
+	 * 连接迁移(服务端节点下线前重定向到其他活跃节点)
+	 */
+	REDIRECT((byte) 13, RedirectMessage.class);
 
 	byte actionId; // action_Id值
 	Class<? extends Message> msgClass; // 应答消息封装对象Class
@@ -0,0 +1,61 @@
+package io.transport.sdk.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.transport.sdk.protocol.message.Head;
+import io.transport.sdk.protocol.message.Message;
+import io.transport.sdk.protocol.message.MsgType;
+import io.transport.sdk.utils.ByteBufs;
+
+/**
+ * 连接迁移(重定向)输入消息, 服务端节点下线前通知客户端迁移到其他活跃节点(有序,
+ * 第一个为首选节点)
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月23日
+ * @since
+ */
+public class RedirectMessage extends Message {
+	private static final long serialVersionUID = 5283116454529585401L;
+
+	private List<String> hostAndPorts = new ArrayList<String>();
+
+	public RedirectMessage() {
+		this.getHead().setActionId(MsgType.REDIRECT.getActionId());
+	}
+
+	public List<String> getHostAndPorts() {
+		return hostAndPorts;
+	}
+
+	public void setHostAndPorts(List<String> hostAndPorts) {
+		this.hostAndPorts = hostAndPorts;
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		int len = this.getHead().getTotalLen() - Head.HEAD_LEN;
+		if (len > 0) {
+			// 迁移目标节点列表
+			String haps = ByteBufs.toString(in, len);
+			if (haps != null && haps.trim().length() != 0) {
+				for (String hap : haps.split(","))
+					this.hostAndPorts.add(hap);
+			}
+		}
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		throw new UnsupportedOperationException("不支持的操作.");
+	}
+
+	@Override
+	public String toString() {
+		return "RedirectMessage [getHead()=" + getHead() + ", hostAndPorts=" + hostAndPorts + "]";
+	}
+
+}
@@ -0,0 +1,67 @@
+package io.transport.sdk.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.transport.sdk.exception.TransportException;
+import io.transport.sdk.protocol.message.Head;
+import io.transport.sdk.protocol.message.Message;
+import io.transport.sdk.protocol.message.MsgType;
+
+/**
+ * 批量传送消息接收结果返回<br/>
+ * 批量ACK报文, body格式: count(2) + msgId(4)*count
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月10日
+ * @since
+ */
+public class TransportBatchAckRespMessage extends Message {
+	private static final long serialVersionUID = 3908716302127457817L;
+
+	private List<Integer> msgIds = new ArrayList<Integer>();
+
+	public TransportBatchAckRespMessage() {
+		super();
+		this.getHead().setActionId(MsgType.TRANSPORT_BATCH_RESP.getActionId());
+	}
+
+	public List<Integer> getMsgIds() {
+		return msgIds;
+	}
+
+	public void setMsgIds(List<Integer> msgIds) {
+		this.msgIds = msgIds;
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		int count = in.readUnsignedShort();
+		if (Head.HEAD_LEN + TransportBatchMessage.COUNT_LEN + count * TransportMessage.MSGID_LEN != this.getHead()
+				.getTotalLen())
+			throw new TransportException("Protocol error, illegal batch ack length. " + this.getHead().getTotalLen());
+
+		for (int i = 0; i < count; i++)
+			this.msgIds.add(in.readInt());
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		int totalLen = Head.HEAD_LEN + TransportBatchMessage.COUNT_LEN + this.msgIds.size() * TransportMessage.MSGID_LEN;
+		out.writeInt(totalLen);
+		out.writeShort(this.getHead().getVersion());
+		out.writeByte(this.getHead().getActionId());
+		out.writeByte(this.getHead().getReserve());
+		out.writeShort(this.msgIds.size());
+		for (Integer msgId : this.msgIds)
+			out.writeInt(msgId); // 消息ID
+	}
+
+	@Override
+	public String toString() {
+		return "TransportBatchAckRespMessage [msgIds=" + msgIds + "]";
+	}
+
+}
@@ -0,0 +1,112 @@
+package io.transport.sdk.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.transport.sdk.exception.TransportException;
+import io.transport.sdk.protocol.message.Head;
+import io.transport.sdk.protocol.message.Message;
+import io.transport.sdk.protocol.message.MsgType;
+
+/**
+ * 批量传送消息<br/>
+ * 一帧携带多条消息(共用消息头及ACK), body格式: count(2) + [bodyLen(4) +
+ * 传送消息body]*count, 消息body使用批量消息头的协议版本.<br/>
+ * 注: 编码时不压缩负载消息(批量消息头的压缩标识作用于所有消息)
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月10日
+ * @since
+ */
+public class TransportBatchMessage extends Message {
+	private static final long serialVersionUID = -3466124517380553401L;
+	final transient public static int COUNT_LEN = 2;
+	final transient public static int BODY_LEN = 4;
+	/**
+	 * 单批最大消息数
+	 */
+	final transient public static int MAX_COUNT = 0xFFFF;
+
+	private List<TransportMessage> messages = new ArrayList<TransportMessage>();
+	/**
+	 * 负载消息最大解压长度(bytes, 见解码器)
+	 */
+	private transient int maxContentLength = TransportMessage.DEFAULT_MAX_CONTENT_LEN;
+
+	public TransportBatchMessage() {
+		this.getHead().setActionId(MsgType.TRANSPORT_BATCH.getActionId());
+	}
+
+	public TransportBatchMessage(List<TransportMessage> messages) {
+		this();
+		this.setMessages(messages);
+	}
+
+	public List<TransportMessage> getMessages() {
+		return messages;
+	}
+
+	public void setMessages(List<TransportMessage> messages) {
+		if (messages != null && messages.size() > MAX_COUNT)
+			throw new TransportException("Protocol error, batch messages cannot be greater than " + MAX_COUNT);
+		this.messages = messages;
+	}
+
+	public int getMaxContentLength() {
+		return maxContentLength;
+	}
+
+	public void setMaxContentLength(int maxContentLength) {
+		this.maxContentLength = maxContentLength;
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		int remaining = this.getHead().getTotalLen() - Head.HEAD_LEN - COUNT_LEN;
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			int len = in.readInt();
+			remaining -= BODY_LEN;
+			if (len < TransportMessage.MSGID_LEN || len > remaining)
+				throw new TransportException("Protocol error, illegal batch message length. " + len);
+
+			TransportMessage msg = new TransportMessage();
+			msg.setHead(new Head(Head.HEAD_LEN + len, this.getHead().getVersion(),
+					MsgType.TRANSPORT.getActionId(), this.getHead().getReserve()));
+			msg.setMaxContentLength(this.maxContentLength);
+			msg.readByteBufDecoder(in);
+			this.messages.add(msg);
+			remaining -= len;
+		}
+		if (remaining != 0)
+			throw new TransportException("Protocol error, illegal batch length. " + this.getHead().getTotalLen());
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		int startIndex = out.writerIndex();
+		out.writeInt(0); // 消息总长度(写完body后回填)
+		out.writeShort(this.getHead().getVersion());
+		out.writeByte(this.getHead().getActionId());
+		out.writeByte(this.getHead().getReserve() & ~Head.RESERVE_COMPRESSED);
+		out.writeShort(this.messages.size());
+		for (TransportMessage msg : this.messages) {
+			// 消息body使用批量消息头的协议版本
+			msg.getHead().setVersion(this.getHead().getVersion());
+			int bodyIndex = out.writerIndex();
+			out.writeInt(0); // 消息body长度(回填)
+			msg.writeBody(out);
+			out.setInt(bodyIndex, out.writerIndex() - bodyIndex - BODY_LEN);
+		}
+		out.setInt(startIndex, out.writerIndex() - startIndex);
+	}
+
+	@Override
+	public String toString() {
+		return "TransportBatchMessage [count=" + (messages != null ? messages.size() : 0) + ", messages=" + messages
+				+ "]";
+	}
+
+}
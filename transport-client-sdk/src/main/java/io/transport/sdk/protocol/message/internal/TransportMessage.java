@@ -5,6 +5,7 @@ import io.netty.util.CharsetUtil;
 import io.transport.sdk.exception.TransportException;
 import io.transport.sdk.protocol.message.DeviceInfo;
 import io.transport.sdk.protocol.message.Head;
+import io.transport.sdk.protocol.message.Head.Version;
 import io.transport.sdk.protocol.message.Message;
 import io.transport.sdk.protocol.message.MsgType;
 import io.transport.sdk.utils.ByteBufs;
@@ -22,6 +23,14 @@ public class TransportMessage extends Message {
 	private static final long serialVersionUID = 5283116454529585401L;
 	final transient public static int MSGID_LEN = 4;
 	final transient public static int CLASSIFIER_LEN = 50;
+	/**
+	 * V2紧凑格式, 字段存在标识长度(bytes)
+	 */
+	final transient public static int FLAGS_LEN = 1;
+	/**
+	 * 负载消息默认最大解压长度(bytes)
+	 */
+	final transient public static int DEFAULT_MAX_CONTENT_LEN = 4 * 1024 * 1024;
 
 	/*
 	 * 消息ID CRC(fromDeviceId+toDeviceId+toGroupId+timestamp)
@@ -34,6 +43,14 @@ public class TransportMessage extends Message {
 	// statistics.
 	private String classifier;
 	private String payload;
+	/**
+	 * 负载消息压缩阈值(bytes), 负数表示不压缩(连接时协商, 见编码器)
+	 */
+	private transient int compressThreshold = -1;
+	/**
+	 * 负载消息最大解压长度(bytes, 防止解压炸弹, 见解码器)
+	 */
+	private transient int maxContentLength = DEFAULT_MAX_CONTENT_LEN;
 
 	public TransportMessage() {
 		this(null, null, null);
@@ -79,6 +96,22 @@ public class TransportMessage extends Message {
 			this.payload = payload;
 	}
 
+	public int getCompressThreshold() {
+		return compressThreshold;
+	}
+
+	public void setCompressThreshold(int compressThreshold) {
+		this.compressThreshold = compressThreshold;
+	}
+
+	public int getMaxContentLength() {
+		return maxContentLength;
+	}
+
+	public void setMaxContentLength(int maxContentLength) {
+		this.maxContentLength = maxContentLength;
+	}
+
 	public String getFromDeviceId() {
 		return fromDeviceId;
 	}
@@ -114,6 +147,12 @@ public class TransportMessage extends Message {
 
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
+		// V2紧凑格式
+		if (Version.isCompact(this.getHead().getVersion())) {
+			this.readCompactBody(in);
+			return;
+		}
+
 		this.setMsgId(in.readInt());
 		this.setFromDeviceId(ByteBufs.toString(in, DeviceInfo.ID_LEN));
 		this.setToDeviceId(ByteBufs.toString(in, DeviceInfo.ID_LEN));
@@ -122,28 +161,134 @@ public class TransportMessage extends Message {
 		int len = this.getHead().getTotalLen()
 				- (Head.HEAD_LEN + MSGID_LEN + DeviceInfo.ID_LEN * 2 + DeviceInfo.GROUP_ID_LEN + CLASSIFIER_LEN);
 
-		this.setPayload(ByteBufs.toString(in, len));
+		this.setPayload(this.readPayload(in, len));
+	}
+
+	/**
+	 * 读取负载消息(已压缩时解压)
+	 * 
+	 * @param in
+	 * @param len
+	 * @return
+	 */
+	private String readPayload(ByteBuf in, int len) {
+		if (this.getHead().hasReserve(Head.RESERVE_COMPRESSED)) {
+			String payload = ByteBufs.inflate(in, len, this.maxContentLength);
+			// 清除压缩标识
+			this.getHead().setReserve((byte) (this.getHead().getReserve() & ~Head.RESERVE_COMPRESSED));
+			return payload;
+		}
+		return ByteBufs.toString(in, len);
+	}
+
+	/**
+	 * 读取V2紧凑格式body<br/>
+	 * msgId(4) + flags(1) + [varint(len) + utf8 bytes](存在的字段) + payload
+	 * 
+	 * @param in
+	 */
+	private void readCompactBody(ByteBuf in) {
+		this.setMsgId(in.readInt());
+		int len = this.getHead().getTotalLen() - (Head.HEAD_LEN + MSGID_LEN);
+		if (len < FLAGS_LEN)
+			throw new TransportException("Protocol error, illegal transport message length. " + len);
+
+		int endIndex = in.readerIndex() + len;
+		byte flags = in.readByte();
+		String[] fields = new String[4];
+		for (int i = 0; i < fields.length; i++) {
+			if ((flags & (1 << i)) != 0) {
+				int fieldLen = ByteBufs.readVarInt(in);
+				if (fieldLen < 0 || in.readerIndex() + fieldLen > endIndex)
+					throw new TransportException("Protocol error, illegal field length. " + fieldLen);
+				fields[i] = ByteBufs.toString(in, fieldLen);
+			}
+		}
+		this.setFromDeviceId(fields[0]);
+		this.setToDeviceId(fields[1]);
+		this.setToGroupId(fields[2]);
+		this.setClassifier(fields[3]);
+		this.setPayload(this.readPayload(in, endIndex - in.readerIndex()));
 	}
 
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		byte[] fromDeviceIdBuf = ByteBufs.coverFixedBuf(this.getFromDeviceId(), DeviceInfo.ID_LEN);
-		byte[] toDeviceIdBuf = ByteBufs.coverFixedBuf(this.getToDeviceId(), DeviceInfo.ID_LEN);
-		byte[] toGroupIdBuf = ByteBufs.coverFixedBuf(this.getToGroupId(), DeviceInfo.GROUP_ID_LEN);
-		byte[] classifierBuf = ByteBufs.coverFixedBuf(this.getClassifier(), CLASSIFIER_LEN);
 		byte[] payloadBuf = ByteBufs.toBytes(this.getPayload());
-		int totalLen = Head.HEAD_LEN + MSGID_LEN + DeviceInfo.ID_LEN * 2 + DeviceInfo.GROUP_ID_LEN + CLASSIFIER_LEN
-				+ payloadBuf.length;
+		byte reserve = this.getHead().getReserve();
+		// 负载消息达到阈值时压缩
+		if (this.compressThreshold >= 0 && payloadBuf.length >= this.compressThreshold) {
+			byte[] deflated = ByteBufs.deflate(payloadBuf);
+			if (deflated != null) {
+				payloadBuf = deflated;
+				reserve |= Head.RESERVE_COMPRESSED;
+			}
+		}
 
-		out.writeInt(totalLen);
+		int startIndex = out.writerIndex();
+		out.writeInt(0); // 消息总长度(写完body后回填)
 		out.writeShort(this.getHead().getVersion());
 		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
+		out.writeByte(reserve);
+		this.writeBody(out, payloadBuf);
+		out.setInt(startIndex, out.writerIndex() - startIndex);
+	}
+
+	/**
+	 * 写入消息body(不含head, 负载消息不压缩, 见{@link TransportBatchMessage})
+	 * 
+	 * @param out
+	 */
+	void writeBody(ByteBuf out) {
+		this.writeBody(out, ByteBufs.toBytes(this.getPayload()));
+	}
+
+	/**
+	 * 写入消息body(不含head)
+	 * 
+	 * @param out
+	 * @param payloadBuf
+	 *            负载消息(原始或已压缩)
+	 */
+	private void writeBody(ByteBuf out, byte[] payloadBuf) {
+		// V2紧凑格式
+		if (Version.isCompact(this.getHead().getVersion())) {
+			this.writeCompactBody(out, payloadBuf);
+			return;
+		}
+
+		out.writeInt(this.getMsgId()); // 消息ID
+		out.writeBytes(ByteBufs.coverFixedBuf(this.getFromDeviceId(), DeviceInfo.ID_LEN));
+		out.writeBytes(ByteBufs.coverFixedBuf(this.getToDeviceId(), DeviceInfo.ID_LEN));
+		out.writeBytes(ByteBufs.coverFixedBuf(this.getToGroupId(), DeviceInfo.GROUP_ID_LEN));
+		out.writeBytes(ByteBufs.coverFixedBuf(this.getClassifier(), CLASSIFIER_LEN));
+		out.writeBytes(payloadBuf); // 负载消息
+	}
+
+	/**
+	 * 写入V2紧凑格式(省略空字段, 变长字段无需补齐)
+	 * 
+	 * @param out
+	 * @param payloadBuf
+	 */
+	private void writeCompactBody(ByteBuf out, byte[] payloadBuf) {
+		byte[][] fieldBufs = new byte[][] { ByteBufs.toBytes(ByteBufs.empty(this.getFromDeviceId())),
+				ByteBufs.toBytes(ByteBufs.empty(this.getToDeviceId())),
+				ByteBufs.toBytes(ByteBufs.empty(this.getToGroupId())),
+				ByteBufs.toBytes(ByteBufs.empty(this.getClassifier())) };
+		int flags = 0;
+		for (int i = 0; i < fieldBufs.length; i++) {
+			if (fieldBufs[i].length > 0)
+				flags |= (1 << i);
+		}
+
 		out.writeInt(this.getMsgId()); // 消息ID
-		out.writeBytes(fromDeviceIdBuf);
-		out.writeBytes(toDeviceIdBuf);
-		out.writeBytes(toGroupIdBuf);
-		out.writeBytes(classifierBuf);
+		out.writeByte(flags);
+		for (byte[] fieldBuf : fieldBufs) {
+			if (fieldBuf.length > 0) {
+				ByteBufs.writeVarInt(out, fieldBuf.length);
+				out.writeBytes(fieldBuf);
+			}
+		}
 		out.writeBytes(payloadBuf); // 负载消息
 	}
 
@@ -1,6 +1,9 @@
 package io.transport.sdk.utils;
 
 import java.io.UnsupportedEncodingException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -9,6 +12,22 @@ import io.transport.sdk.exception.TransportException;
 
 public class ByteBufs {
 
+	/**
+	 * 当前线程的Deflater/Inflater(持有本地内存, 复用而非每条消息新建)
+	 */
+	final private static ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_SPEED);
+		}
+	};
+	final private static ThreadLocal<Inflater> INFLATERS = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
 	/**
 	 * 将字符串转为网络字节缓冲内容
 	 * 
@@ -41,6 +60,101 @@ public class ByteBufs {
 		}
 	}
 
+	/**
+	 * 压缩字节数组(deflate)
+	 * 
+	 * @param src
+	 * @return 压缩后的字节, 若无法压缩得更小则返回null
+	 */
+	public static byte[] deflate(byte[] src) {
+		Deflater deflater = DEFLATERS.get();
+		try {
+			deflater.setInput(src);
+			deflater.finish();
+			byte[] dst = new byte[src.length];
+			int len = 0;
+			while (!deflater.finished() && len < dst.length)
+				len += deflater.deflate(dst, len, dst.length - len);
+			if (!deflater.finished())
+				return null;
+
+			byte[] ret = new byte[len];
+			System.arraycopy(dst, 0, ret, 0, len);
+			return ret;
+		} finally {
+			deflater.reset();
+		}
+	}
+
+	/**
+	 * 读取并解压为UTF-8字符串
+	 * 
+	 * @param buf
+	 * @param length
+	 *            压缩数据长度
+	 * @param maxLength
+	 *            最大解压长度(防止解压炸弹)
+	 * @return
+	 */
+	public static String inflate(ByteBuf buf, int length, int maxLength) {
+		byte[] src = toBytes(buf, length);
+		Inflater inflater = INFLATERS.get();
+		try {
+			inflater.setInput(src);
+			byte[] dst = new byte[Math.min(Math.max(length * 4, 64), maxLength)];
+			int len = 0;
+			while (!inflater.finished()) {
+				if (len == dst.length) {
+					if (len >= maxLength)
+						throw new TransportException("Decompressed length exceeds the limit of " + maxLength);
+					byte[] tmp = new byte[Math.min(len * 2, maxLength)];
+					System.arraycopy(dst, 0, tmp, 0, len);
+					dst = tmp;
+				}
+				int n = inflater.inflate(dst, len, dst.length - len);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new TransportException("Protocol error, truncated compressed data.");
+				len += n;
+			}
+			return new String(dst, 0, len, CharsetUtil.UTF_8);
+		} catch (DataFormatException e) {
+			throw new TransportException("Protocol error, illegal compressed data.", e);
+		} finally {
+			inflater.reset();
+		}
+	}
+
+	/**
+	 * 读取无符号变长整数(base 128 varint)
+	 * 
+	 * @param buf
+	 * @return
+	 */
+	public static int readVarInt(ByteBuf buf) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buf.readByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new TransportException("Protocol error, malformed varint.");
+	}
+
+	/**
+	 * 写入无符号变长整数(base 128 varint)
+	 * 
+	 * @param buf
+	 * @param value
+	 */
+	public static void writeVarInt(ByteBuf buf, int value) {
+		while ((value & ~0x7f) != 0) {
+			buf.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		buf.writeByte(value);
+	}
+
 	/**
 	 * 将byte[]转为字符串
 	 * 
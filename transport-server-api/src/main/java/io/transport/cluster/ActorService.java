@@ -18,6 +18,28 @@ public interface ActorService {
 	 */
 	Object create(String actorAlias);
 
+	/**
+	 * Create actor.
+	 * 
+	 * @param actorAlias
+	 * @param register
+	 *            Whether to save the actor registry, otherwise the caller
+	 *            saves it(e.g. batched with the client registration, the
+	 *            value is the JSON of the returned actor).
+	 * @return
+	 */
+	Object create(String actorAlias, boolean register);
+
+	/**
+	 * Get the actor of this node(the actor is not created, and the registry
+	 * is not accessed), it is used to check whether the actor registry is
+	 * owned by this node.
+	 * 
+	 * @param actorAlias
+	 * @return
+	 */
+	Object localActor(String actorAlias);
+
 	/**
 	 * Tell message to cluster actorName.
 	 * 
@@ -0,0 +1,29 @@
+package io.transport.core;
+
+/**
+ * Graceful drain Service(rolling restart)
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月23日
+ * @since
+ */
+public interface DrainService {
+
+	/**
+	 * Start draining the local node(asynchronous): stop accepting, redirect
+	 * the connected clients to the other active nodes in waves, and wait for
+	 * the in-flight deliveries.
+	 * 
+	 * @return false if the node is already draining.
+	 */
+	boolean drain();
+
+	/**
+	 * Whether the local node is draining(or drained).
+	 * 
+	 * @return
+	 */
+	boolean isDraining();
+
+}
@@ -14,7 +14,8 @@ public abstract interface MessageService {
 	 * 发布消息到MQ
 	 * 
 	 * @param msg
-	 *            负载消息
+	 *            负载消息(single or batch message, the batch is
+	 *            acknowledged as a whole)
 	 */
 	void publish(Object msg);
 
@@ -34,4 +35,10 @@ public abstract interface MessageService {
 	 */
 	void sentAck(Object msg);
 
+	/**
+	 * Flush the in-flight(accumulated) messages to MQ, and block until they
+	 * have been sent(e.g. before the node is shutdown).
+	 */
+	void flush();
+
 }
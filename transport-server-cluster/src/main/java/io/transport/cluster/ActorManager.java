@@ -111,6 +111,18 @@ public class ActorManager implements ApplicationRunner, DisposableBean {
 	 * @return
 	 */
 	public ActorBean actorCreate(String actorAlias) {
+		return this.actorCreate(actorAlias, true);
+	}
+
+	/**
+	 * Create a actor
+	 * 
+	 * @param actorAlias
+	 * @param register
+	 *            Whether to save the actor info.
+	 * @return
+	 */
+	public ActorBean actorCreate(String actorAlias, boolean register) {
 		// 1.0 Check info.
 		if (this._system == null)
 			throw new AkkaException("Create actor failed('" + actorAlias + "'), actor system is unnitialized.");
@@ -129,19 +141,32 @@ public class ActorManager implements ApplicationRunner, DisposableBean {
 		}
 
 		// 1.2 Selection actor info.
-		String path = new ActorPath(conf.getActorSystemName(), conf.getHostname(), conf.getRemote().getPort(), actorAlias)
-				.asString();
-		ActorSelection actorSel = this._system.actorSelection(path);
-		ActorBean ab = new ActorBean(actorSel.anchor(), path);
+		ActorBean ab = this.localActor(actorAlias);
 		// Default actorBean.
 		if (StringUtils.equalsIgnoreCase(actorAlias, ActorPath.DEFAULT_ACTOR_NAME))
 			this.defaultActorBean = ab;
 
 		// 1.3 Save actor info.
-		this.registry.addRegistry(actorAlias, ab);
+		if (register)
+			this.registry.addRegistry(actorAlias, ab);
 		return ab;
 	}
 
+	/**
+	 * Get the actor info of this node(not created).
+	 * 
+	 * @param actorAlias
+	 * @return
+	 */
+	public ActorBean localActor(String actorAlias) {
+		if (this._system == null)
+			throw new AkkaException("Get actor failed('" + actorAlias + "'), actor system is unnitialized.");
+		String path = new ActorPath(conf.getActorSystemName(), conf.getHostname(), conf.getRemote().getPort(), actorAlias)
+				.asString();
+		ActorSelection actorSel = this._system.actorSelection(path);
+		return new ActorBean(actorSel.anchor(), path);
+	}
+
 	/**
 	 * Destroy a actor
 	 * 
@@ -34,12 +34,12 @@ public class JedisActorRegistry implements ActorRegistry {
 	private JedisService jedisService;
 
 	public ActorBean getActorBean(String actorAlias) {
-		String actorNameKey = this.conf.getCtlDeviceIdActorPkey() + actorAlias;
+		String actorNameKey = this.conf.getDeviceIdActorKey(actorAlias);
 		return JSON.parseObject(this.jedisService.get(actorNameKey), ActorBean.class);
 	}
 
 	public boolean addRegistry(String actorAlias, ActorBean actorBean) {
-		String actorNameKey = this.conf.getCtlDeviceIdActorPkey() + actorAlias;
+		String actorNameKey = this.conf.getDeviceIdActorKey(actorAlias);
 		String ret = this.jedisService.set(actorNameKey, JSON.toJSONString(actorBean), 0);
 		if (logger.isInfoEnabled())
 			logger.info("新建Actor: {}", actorBean.getRemoteActorAddr());
@@ -51,13 +51,13 @@ public class JedisActorRegistry implements ActorRegistry {
 		if (logger.isInfoEnabled())
 			logger.info("Remove actor'{}'", actorAlias);
 
-		Long ret = this.jedisService.del(actorAlias);
+		Long ret = this.jedisService.del(this.conf.getDeviceIdActorKey(actorAlias));
 		return ret != null;
 	}
 
 	@Override
 	public boolean containsActor(String actorAlias) {
-		return this.jedisService.get(actorAlias) != null;
+		return this.jedisService.get(this.conf.getDeviceIdActorKey(actorAlias)) != null;
 	}
 
 }
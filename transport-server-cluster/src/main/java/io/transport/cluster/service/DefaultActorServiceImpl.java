@@ -19,6 +19,16 @@ public class DefaultActorServiceImpl implements ActorService {
 		return this.manager.actorCreate(actorAlias);
 	}
 
+	@Override
+	public ActorBean create(String actorAlias, boolean register) {
+		return this.manager.actorCreate(actorAlias, register);
+	}
+
+	@Override
+	public ActorBean localActor(String actorAlias) {
+		return this.manager.localActor(actorAlias);
+	}
+
 	@Override
 	public ActorBean tell(String actorAlias, Object message) {
 		return this.manager.actorTell(actorAlias, message);
@@ -1,5 +1,8 @@
 package io.transport.common.bean;
 
+import java.util.List;
+import java.util.Map;
+
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
 
@@ -78,6 +81,42 @@ public class ChannelMetricsInfo extends Message {
 		private String portRPC; // 当前RPC监听端口
 		@JSONField(name = "portActor")
 		private String portActor; // 当前Actor监听端口
+		@JSONField(name = "eventLoopPendingTasks")
+		private Map<String, List<Integer>> eventLoopPendingTasks; // 各事件循环待处理任务数
+		@JSONField(name = "outboundDrops")
+		private String outboundDrops; // 出站队列溢出丢弃的消息数
+		@JSONField(name = "outboundStalls")
+		private String outboundStalls; // 通道不可写(停顿)次数
+		@JSONField(name = "outboundDisconnects")
+		private String outboundDisconnects; // 出站队列溢出断开的连接数
+		@JSONField(name = "sslHandshakes")
+		private String sslHandshakes; // TLS握手成功次数(完整+复用)
+		@JSONField(name = "sslResumedHandshakes")
+		private String sslResumedHandshakes; // TLS会话复用握手次数
+		@JSONField(name = "sslHandshakeFailures")
+		private String sslHandshakeFailures; // TLS握手失败次数
+		@JSONField(name = "sslHandshakeAvgLatency")
+		private String sslHandshakeAvgLatency; // TLS握手平均耗时(us)
+		@JSONField(name = "sslHandshakeAvgCpu")
+		private String sslHandshakeAvgCpu; // TLS握手平均IO线程CPU耗时(us)
+		@JSONField(name = "wsCompressedConnections")
+		private String wsCompressedConnections; // WebSocket压缩(permessage-deflate)连接数
+		@JSONField(name = "wsCompressionMemory")
+		private String wsCompressionMemory; // WebSocket压缩上下文估算内存(KB)
+		@JSONField(name = "wsUncompressedFrames")
+		private String wsUncompressedFrames; // 小于压缩阈值未压缩发送的帧数
+		@JSONField(name = "localConnections")
+		private String localConnections; // 本节点已认证连接数
+		@JSONField(name = "connectionStateBytes")
+		private String connectionStateBytes; // 每连接客户端状态估算字节数
+		@JSONField(name = "heapBytesPerConnection")
+		private String heapBytesPerConnection; // 每连接堆内存(上次GC后存活堆/连接数)
+		@JSONField(name = "clientCacheRequests")
+		private String clientCacheRequests; // 远程客户端信息近端缓存查询数
+		@JSONField(name = "clientCacheHitRate")
+		private String clientCacheHitRate; // 远程客户端信息近端缓存命中率
+		@JSONField(name = "clientCacheEvictions")
+		private String clientCacheEvictions; // 远程客户端信息近端缓存淘汰数
 
 		// 系统参数
 		//
@@ -212,6 +251,150 @@ public class ChannelMetricsInfo extends Message {
 			this.portActor = portActor;
 		}
 
+		public Map<String, List<Integer>> getEventLoopPendingTasks() {
+			return eventLoopPendingTasks;
+		}
+
+		public void setEventLoopPendingTasks(Map<String, List<Integer>> eventLoopPendingTasks) {
+			this.eventLoopPendingTasks = eventLoopPendingTasks;
+		}
+
+		public String getOutboundDrops() {
+			return outboundDrops;
+		}
+
+		public void setOutboundDrops(String outboundDrops) {
+			this.outboundDrops = outboundDrops;
+		}
+
+		public String getOutboundStalls() {
+			return outboundStalls;
+		}
+
+		public void setOutboundStalls(String outboundStalls) {
+			this.outboundStalls = outboundStalls;
+		}
+
+		public String getOutboundDisconnects() {
+			return outboundDisconnects;
+		}
+
+		public void setOutboundDisconnects(String outboundDisconnects) {
+			this.outboundDisconnects = outboundDisconnects;
+		}
+
+		public String getSslHandshakes() {
+			return sslHandshakes;
+		}
+
+		public void setSslHandshakes(String sslHandshakes) {
+			this.sslHandshakes = sslHandshakes;
+		}
+
+		public String getSslResumedHandshakes() {
+			return sslResumedHandshakes;
+		}
+
+		public void setSslResumedHandshakes(String sslResumedHandshakes) {
+			this.sslResumedHandshakes = sslResumedHandshakes;
+		}
+
+		public String getSslHandshakeFailures() {
+			return sslHandshakeFailures;
+		}
+
+		public void setSslHandshakeFailures(String sslHandshakeFailures) {
+			this.sslHandshakeFailures = sslHandshakeFailures;
+		}
+
+		public String getSslHandshakeAvgLatency() {
+			return sslHandshakeAvgLatency;
+		}
+
+		public void setSslHandshakeAvgLatency(String sslHandshakeAvgLatency) {
+			this.sslHandshakeAvgLatency = sslHandshakeAvgLatency;
+		}
+
+		public String getSslHandshakeAvgCpu() {
+			return sslHandshakeAvgCpu;
+		}
+
+		public void setSslHandshakeAvgCpu(String sslHandshakeAvgCpu) {
+			this.sslHandshakeAvgCpu = sslHandshakeAvgCpu;
+		}
+
+		public String getWsCompressedConnections() {
+			return wsCompressedConnections;
+		}
+
+		public void setWsCompressedConnections(String wsCompressedConnections) {
+			this.wsCompressedConnections = wsCompressedConnections;
+		}
+
+		public String getWsCompressionMemory() {
+			return wsCompressionMemory;
+		}
+
+		public void setWsCompressionMemory(String wsCompressionMemory) {
+			this.wsCompressionMemory = wsCompressionMemory;
+		}
+
+		public String getWsUncompressedFrames() {
+			return wsUncompressedFrames;
+		}
+
+		public void setWsUncompressedFrames(String wsUncompressedFrames) {
+			this.wsUncompressedFrames = wsUncompressedFrames;
+		}
+
+		public String getLocalConnections() {
+			return localConnections;
+		}
+
+		public void setLocalConnections(String localConnections) {
+			this.localConnections = localConnections;
+		}
+
+		public String getConnectionStateBytes() {
+			return connectionStateBytes;
+		}
+
+		public void setConnectionStateBytes(String connectionStateBytes) {
+			this.connectionStateBytes = connectionStateBytes;
+		}
+
+		public String getHeapBytesPerConnection() {
+			return heapBytesPerConnection;
+		}
+
+		public void setHeapBytesPerConnection(String heapBytesPerConnection) {
+			this.heapBytesPerConnection = heapBytesPerConnection;
+		}
+
+		public String getClientCacheRequests() {
+			return clientCacheRequests;
+		}
+
+		public void setClientCacheRequests(String clientCacheRequests) {
+			this.clientCacheRequests = clientCacheRequests;
+		}
+
+		public String getClientCacheHitRate() {
+			return clientCacheHitRate;
+		}
+
+		public void setClientCacheHitRate(String clientCacheHitRate) {
+			this.clientCacheHitRate = clientCacheHitRate;
+		}
+
+		public String getClientCacheEvictions() {
+			return clientCacheEvictions;
+		}
+
+		public void setClientCacheEvictions(String clientCacheEvictions) {
+			this.clientCacheEvictions = clientCacheEvictions;
+		}
+
 		public String getSysOpenfiles() {
 			return sysOpenfiles;
 		}
@@ -22,6 +22,8 @@ import com.google.common.collect.Sets;
 import io.transport.common.utils.ObjectUtils;
 import io.transport.common.utils.StringUtils;
 import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisDataException;
 
 /**
  * Redis operations tools
@@ -62,6 +64,104 @@ public class JedisService {
 		});
 	}
 
+	/**
+	 * 批量设置缓存(one MSET round-trip, in the cluster mode all keys must be
+	 * in the same slot, e.g. hash tagged `{tag}`)
+	 * 
+	 * @param values
+	 *            键值
+	 * @return
+	 */
+	public String setMulti(final Map<String, String> values) {
+		return (String) execute(new Callback() {
+			@Override
+			public Object call(JedisCluster jedisCluster) {
+				String[] keysvalues = new String[values.size() * 2];
+				int i = 0;
+				for (Map.Entry<String, String> ent : values.entrySet()) {
+					keysvalues[i++] = ent.getKey();
+					keysvalues[i++] = ent.getValue();
+				}
+				String result = jedisCluster.mset(keysvalues);
+				if (logger.isDebugEnabled())
+					logger.debug("setMulti {}", values);
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * 执行Lua脚本(EVALSHA, EVAL is only used when the script is not cached
+	 * by the server, in the cluster mode all keys must be in the same slot)
+	 * 
+	 * @param script
+	 *            脚本
+	 * @param keys
+	 *            键
+	 * @param args
+	 *            参数
+	 * @return
+	 */
+	public Object evalScript(final LuaScript script, final List<String> keys, final List<String> args) {
+		return execute(new Callback() {
+			@Override
+			public Object call(JedisCluster jedisCluster) {
+				Object result = null;
+				try {
+					result = jedisCluster.evalsha(script.getSha1(), keys, args);
+				} catch (JedisDataException e) {
+					if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT"))
+						throw e;
+					// Load the script(cached by the server).
+					result = jedisCluster.eval(script.getScript(), keys, args);
+				}
+				if (logger.isDebugEnabled())
+					logger.debug("evalScript {} {} {} = {}", script, keys, args, result);
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * 发布消息
+	 * 
+	 * @param channel
+	 *            频道
+	 * @param message
+	 *            消息
+	 * @return 接收的订阅者数
+	 */
+	public Long publish(final String channel, final String message) {
+		return (Long) execute(new Callback() {
+			@Override
+			public Object call(JedisCluster jedisCluster) {
+				Long result = jedisCluster.publish(channel, message);
+				if (logger.isDebugEnabled())
+					logger.debug("publish {} = {}", channel, message);
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * 订阅频道(blocking until unsubscribed, it should be called by a
+	 * dedicated thread)
+	 * 
+	 * @param pubSub
+	 *            订阅处理
+	 * @param channels
+	 *            频道
+	 */
+	public void subscribe(final JedisPubSub pubSub, final String... channels) {
+		execute(new Callback() {
+			@Override
+			public Object call(JedisCluster jedisCluster) {
+				jedisCluster.subscribe(pubSub, channels);
+				return null;
+			}
+		});
+	}
+
 	/**
 	 * 获取缓存
 	 * 
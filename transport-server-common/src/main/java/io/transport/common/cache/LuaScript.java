@@ -0,0 +1,40 @@
+package io.transport.common.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+/**
+ * Redis Lua script, it is executed by EVALSHA(the SHA1 digest is computed
+ * locally), and loaded by EVAL only if the script is not cached by the
+ * server(NOSCRIPT), see {@link JedisService#evalScript(LuaScript, java.util.List, java.util.List)}.<br/>
+ * Note: In the cluster mode, all keys of the script must be in the same slot.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月29日
+ * @since
+ */
+final public class LuaScript {
+
+	final private String script;
+	final private String sha1;
+
+	public LuaScript(String script) {
+		this.script = script;
+		this.sha1 = Hashing.sha1().hashString(script, Charsets.UTF_8).toString();
+	}
+
+	public String getScript() {
+		return script;
+	}
+
+	public String getSha1() {
+		return sha1;
+	}
+
+	@Override
+	public String toString() {
+		return "LuaScript [sha1=" + sha1 + "]";
+	}
+
+}
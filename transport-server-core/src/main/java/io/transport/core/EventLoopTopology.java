@@ -0,0 +1,214 @@
+package io.transport.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.transport.core.config.Configuration.ServerConfig;
+import io.transport.core.config.Configuration.TransportType;
+
+/**
+ * Shared event loop topology of the netty servers(RPC/WebSocket).<br/>
+ * All servers share one master group(acceptors) and one worker group, a
+ * server configured with `io-threads` gets a dedicated partition of the
+ * worker threads instead, the total worker threads remain unchanged(if the
+ * partitions use up the total, a warning is logged, and the servers without
+ * a partition still get one shared loop).<br/>
+ * The business handlers run on the business executors(blocking Redis/Kafka
+ * calls must not stall the IO loops), each channel is bound to one executor,
+ * so the per-channel ordering is kept.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月15日
+ * @since
+ */
+public class EventLoopTopology {
+	final private static Logger logger = LoggerFactory.getLogger(EventLoopTopology.class);
+
+	final private boolean epoll;
+	final private EventLoopGroup masters;
+	/**
+	 * Shared worker group(null if all servers are partitioned).
+	 */
+	private EventLoopGroup workers;
+	/**
+	 * Server name to the dedicated worker partition.
+	 */
+	final private Map<String, EventLoopGroup> partitions = new LinkedHashMap<>();
+	/**
+	 * Business executors(null if disabled, the business handlers run on the
+	 * IO loops).
+	 */
+	private EventExecutorGroup business;
+
+	/**
+	 * New event loop topology.
+	 * 
+	 * @param confs
+	 *            The servers to start.
+	 * @param workerThreads
+	 *            Total worker threads, 0 means availableProcessors().
+	 * @param businessThreads
+	 *            Business executor threads, 0 means availableProcessors() *
+	 *            2, negative means disabled.
+	 */
+	public EventLoopTopology(Collection<ServerConfig> confs, int workerThreads, int businessThreads) {
+		// The groups are shared, so all servers use the same transport,
+		// native epoll(linux) unless a server requires NIO.
+		boolean epoll = Epoll.isAvailable();
+		for (ServerConfig conf : confs) {
+			if (conf.getTransport() == TransportType.NIO)
+				epoll = false;
+			else if (conf.getTransport() == TransportType.EPOLL && !Epoll.isAvailable())
+				logger.warn("Native epoll transport is unavailable, fallback to NIO({}). cause: {}", conf.getName(),
+						Epoll.unavailabilityCause());
+		}
+		this.epoll = epoll;
+
+		// Masters: one loop per acceptor channel.
+		int masterThreads = 0;
+		for (ServerConfig conf : confs)
+			masterThreads += this.acceptors(conf);
+		this.masters = this.newEventLoopGroup(Math.max(1, masterThreads), "NettyServerMaster");
+
+		// Workers: the dedicated partitions are carved from the total.
+		int total = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+		int shared = total;
+		boolean hasShared = false;
+		for (ServerConfig conf : confs) {
+			if (conf.getIoThreads() > 0) {
+				this.partitions.put(conf.getName(),
+						this.newEventLoopGroup(conf.getIoThreads(), "NettyServerWorker-" + conf.getName()));
+				shared -= conf.getIoThreads();
+			} else
+				hasShared = true;
+		}
+		if (shared < (hasShared ? 1 : 0))
+			logger.warn(
+					"The io-threads partitions({}) use up the total worker threads({}), the total is exceeded. partitions={}",
+					total - shared, total, this.partitions.keySet());
+		if (hasShared)
+			this.workers = this.newEventLoopGroup(Math.max(1, shared), "NettyServerWorker");
+
+		// Business executors.
+		if (businessThreads >= 0) {
+			if (businessThreads == 0)
+				businessThreads = Runtime.getRuntime().availableProcessors() * 2;
+			this.business = new DefaultEventExecutorGroup(businessThreads,
+					new DefaultThreadFactory("NettyServerBusiness", true));
+		}
+
+		if (logger.isInfoEnabled())
+			logger.info("Initialized event loop topology. epoll={}, masters={}, workers={}, partitions={}, business={}",
+					epoll, masterThreads, (hasShared ? Math.max(1, shared) : 0), this.partitions.keySet(),
+					businessThreads);
+	}
+
+	public boolean isEpoll() {
+		return epoll;
+	}
+
+	public EventLoopGroup getMasters() {
+		return masters;
+	}
+
+	/**
+	 * Get the worker group of the server(dedicated partition or shared).
+	 * 
+	 * @param name
+	 *            server name
+	 * @return
+	 */
+	public EventLoopGroup getWorkers(String name) {
+		EventLoopGroup partition = this.partitions.get(name);
+		return partition != null ? partition : this.workers;
+	}
+
+	/**
+	 * Get the executor group of the business handlers(null means the IO
+	 * loop of the channel).
+	 * 
+	 * @return
+	 */
+	public EventExecutorGroup getBusiness() {
+		return business;
+	}
+
+	/**
+	 * The number of acceptor channels of the server(multiple acceptors with
+	 * SO_REUSEPORT are only supported by epoll).
+	 * 
+	 * @param conf
+	 * @return
+	 */
+	public int acceptors(ServerConfig conf) {
+		return this.epoll ? Math.max(1, conf.getAcceptors()) : 1;
+	}
+
+	/**
+	 * Pending tasks of each event loop, grouped by the group name.
+	 * 
+	 * @return
+	 */
+	public Map<String, List<Integer>> pendingTasks() {
+		Map<String, List<Integer>> tasks = new LinkedHashMap<>();
+		tasks.put("master", this.pendingTasks(this.masters));
+		if (this.workers != null)
+			tasks.put("worker", this.pendingTasks(this.workers));
+		for (Map.Entry<String, EventLoopGroup> ent : this.partitions.entrySet())
+			tasks.put("worker-" + ent.getKey(), this.pendingTasks(ent.getValue()));
+		if (this.business != null)
+			tasks.put("business", this.pendingTasks(this.business));
+		return tasks;
+	}
+
+	/**
+	 * Shutdown all event loop groups.
+	 */
+	public void shutdownGracefully() {
+		this.masters.shutdownGracefully();
+		if (this.workers != null)
+			this.workers.shutdownGracefully();
+		for (EventLoopGroup partition : this.partitions.values())
+			partition.shutdownGracefully();
+		if (this.business != null)
+			this.business.shutdownGracefully();
+	}
+
+	private List<Integer> pendingTasks(EventExecutorGroup group) {
+		List<Integer> tasks = new ArrayList<>();
+		for (EventExecutor executor : group) {
+			if (executor instanceof SingleThreadEventExecutor)
+				tasks.add(((SingleThreadEventExecutor) executor).pendingTasks());
+		}
+		return tasks;
+	}
+
+	/**
+	 * New event loop group of the transport type.
+	 * 
+	 * @param nThreads
+	 * @param poolName
+	 * @return
+	 */
+	private EventLoopGroup newEventLoopGroup(int nThreads, String poolName) {
+		DefaultThreadFactory factory = new DefaultThreadFactory(poolName, true);
+		return this.epoll ? new EpollEventLoopGroup(nThreads, factory) : new NioEventLoopGroup(nThreads, factory);
+	}
+
+}
@@ -1,5 +1,8 @@
 package io.transport.core;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -7,15 +10,18 @@ import org.slf4j.LoggerFactory;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.util.concurrent.DefaultThreadFactory;
+import io.transport.core.protocol.handler.AdmissionHandler;
 
 /**
  * Netty server
@@ -32,28 +38,73 @@ public class NettyChannelServer {
 	private String hostname = "127.0.0.1";
 	private int port = 10030;
 	private int backlog = 512;
+	private int acceptors = 1;
+	private int lowWaterMark = 32 * 1024;
+	private int highWaterMark = 64 * 1024;
 
 	private ChannelInitializer<SocketChannel> handlerInitializer;
+	/**
+	 * Shared event loops(managed by {@link NettyChannelServerListener}).
+	 */
+	private EventLoopTopology topology;
+	/**
+	 * Connection admission control(null means unlimited).
+	 */
+	private AdmissionHandler admission;
+	/**
+	 * Bound(listening) channels of the acceptors.
+	 */
+	final private List<Channel> channels = new CopyOnWriteArrayList<>();
 
-	public NettyChannelServer(ChannelInitializer<SocketChannel> handlerInitializer) {
+	public NettyChannelServer(ChannelInitializer<SocketChannel> handlerInitializer, EventLoopTopology topology) {
 		super();
 		this.handlerInitializer = handlerInitializer;
+		this.topology = topology;
 	}
 
 	public NettyChannelServer(String name, String hostname, int port, int backlog,
-			ChannelInitializer<SocketChannel> handlerInitializer) {
+			ChannelInitializer<SocketChannel> handlerInitializer, EventLoopTopology topology) {
 		super();
 		this.name = name;
 		this.hostname = hostname;
 		this.port = port;
 		this.backlog = backlog;
 		this.handlerInitializer = handlerInitializer;
+		this.topology = topology;
+	}
+
+	public void setAcceptors(int acceptors) {
+		this.acceptors = acceptors;
+	}
+
+	public void setAdmission(AdmissionHandler admission) {
+		this.admission = admission;
+	}
+
+	public void setWaterMark(int lowWaterMark, int highWaterMark) {
+		this.lowWaterMark = lowWaterMark;
+		this.highWaterMark = highWaterMark;
 	}
 
 	public void doStart() {
 		new Thread(() -> listen()).start();
 	}
 
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Stop accepting the new connections(close the listening channels), the
+	 * accepted connections are not affected.
+	 */
+	public void stopAccept() {
+		for (Channel ch : this.channels)
+			ch.close();
+		if (log.isInfoEnabled())
+			log.info("Netty server stopped accepting({}:{}).", this.name, this.port);
+	}
+
 	/**
 	 * Listener service startup
 	 * 
@@ -61,21 +112,34 @@ public class NettyChannelServer {
 	 * @sine
 	 */
 	private void listen() {
-		if (this.running.compareAndSet(false, true)) {
+		if (!this.running.compareAndSet(false, true)) {
 			log.info("Netty server has been started({}).", this.port);
 			return;
 		}
 
+		// Native epoll transport(linux), otherwise fallback to NIO(decided by
+		// the shared topology).
+		boolean epoll = this.topology.isEpoll();
+		// Multiple acceptors(SO_REUSEPORT) are only supported by epoll.
+		int acceptors = epoll ? Math.max(1, this.acceptors) : 1;
+
 		// 启动引导程序
 		ServerBootstrap bootstrap = new ServerBootstrap();
-		// 事件处理器组(masters用来接收客户端连接并分配给slaves，slaves用来处理客户端连接)
-		EventLoopGroup masters = new NioEventLoopGroup(1, new DefaultThreadFactory("NettyServerMaster", true));
-		// Threads set 0, Netty will use availableProcessors () * 2 by default
-		EventLoopGroup worker = new NioEventLoopGroup(0, new DefaultThreadFactory("NettyServerWorker", true));
 		try {
-			bootstrap.group(masters, worker);
-			// 设置为Nio通道模式
-			bootstrap.channel(NioServerSocketChannel.class);
+			// 事件处理器组(masters用来接收客户端连接并分配给slaves，slaves用来处理客户端连接),
+			// 所有server共享(或使用worker分区)
+			bootstrap.group(this.topology.getMasters(), this.topology.getWorkers(this.name));
+			if (epoll) {
+				// 设置为Epoll通道模式(边缘触发)
+				bootstrap.channel(EpollServerSocketChannel.class);
+				bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+				bootstrap.childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+				// 多个acceptor绑定同一端口, 由内核分散accept
+				if (acceptors > 1)
+					bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+			} else
+				// 设置为Nio通道模式
+				bootstrap.channel(NioServerSocketChannel.class);
 			// 设置通道传输模式，立即传输模式，不需要等待特定大小
 			bootstrap.childOption(ChannelOption.TCP_NODELAY, true);
 			// 设置重用处于TIME_WAIT但是未完全关闭的socket地址
@@ -84,6 +148,9 @@ public class NettyChannelServer {
 			// 设置ByteBuff内存分配器
 			// 主要有两种创建方式：UnpooledByteBufAllocator/PooledByteBufAllocator，在netty5.0中后者是默认的，可以重复利用之前分配的内存空间。这个可以有效减少内存的使用
 			bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+			// 设置写缓冲水位, 超过高水位时通道不可写(背压)
+			bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+					new WriteBufferWaterMark(this.lowWaterMark, this.highWaterMark));
 			// 设置worker的socket通道模式，长连接
 			bootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
 			// 设置最大连接数(TCP底层syns队列/accept队列)，是提供给NioServerSocketChannel用来接收进来的连接,也就是boss线程
@@ -94,33 +161,43 @@ public class NettyChannelServer {
 			// bootstrap.childOption(ChannelOption.SO_RCVBUF, 32);
 			// 设置slaves的处理器队列
 			bootstrap.childHandler(this.handlerInitializer);
+			// 连接准入控制(在初始化子通道处理器之前拒绝超速连接)
+			if (this.admission != null) {
+				bootstrap.handler(this.admission);
+				bootstrap.childAttr(AdmissionHandler.KEY, this.admission);
+			}
 
-			// 绑定端口号，以异步方式提供服务
-			ChannelFuture f = bootstrap.bind(this.hostname, this.port).sync();
-			f.addListener(new ChannelFutureListener() {
-				@Override
-				public void operationComplete(ChannelFuture future) throws Exception {
-					Throwable t = future.cause();
-					if (future.isSuccess())
-						log.info("Netty started on port(s): {} ({})", hostname + ":" + port, name);
-					else
-						log.error(t.getMessage(), t);
-				}
-			});
+			// 绑定端口号，以异步方式提供服务(每个acceptor一个监听通道)
+			List<ChannelFuture> fs = new ArrayList<>(acceptors);
+			for (int i = 0; i < acceptors; i++) {
+				ChannelFuture f = bootstrap.bind(this.hostname, this.port).sync();
+				f.addListener(new ChannelFutureListener() {
+					@Override
+					public void operationComplete(ChannelFuture future) throws Exception {
+						Throwable t = future.cause();
+						if (future.isSuccess())
+							log.info("Netty started on port(s): {} ({}, {})", hostname + ":" + port, name,
+									future.channel().getClass().getSimpleName());
+						else
+							log.error(t.getMessage(), t);
+					}
+				});
+				fs.add(f);
+				this.channels.add(f.channel());
+			}
 
 			// The thread begins to wait here unless there is a socket event
 			// wake-up.
-			f.channel().closeFuture().sync();
+			for (ChannelFuture f : fs)
+				f.channel().closeFuture().sync();
 
 		} catch (InterruptedException e) {
 			log.error("Netty server start failed.", e);
 			throw new RuntimeException(e);
 		} finally {
-			masters.shutdownGracefully();
-			worker.shutdownGracefully();
-			if (this.running.compareAndSet(true, false)) {
-				throw new IllegalStateException("Socket not listen");
-			}
+			// The event loops are shared, shutdown by the topology.
+			this.channels.clear();
+			this.running.set(false);
 			log.info("Netty server stop gracefully({}).", this.port);
 		}
 	}
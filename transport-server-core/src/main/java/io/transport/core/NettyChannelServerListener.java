@@ -1,7 +1,11 @@
 package io.transport.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import javax.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +20,7 @@ import io.netty.util.internal.logging.Slf4JLoggerFactory;
 import io.transport.common.SpringContextHolder;
 import io.transport.core.config.Configuration;
 import io.transport.core.config.Configuration.ServerConfig;
+import io.transport.core.protocol.handler.AdmissionHandler;
 
 /**
  * Netty服务监听器
@@ -32,6 +37,11 @@ public class NettyChannelServerListener implements ApplicationRunner {
 	volatile private boolean startupFlag = false;
 	@Autowired
 	private Configuration config;
+	private EventLoopTopology topology;
+	/**
+	 * Started servers.
+	 */
+	final private List<NettyChannelServer> servers = new ArrayList<>(4);
 
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
@@ -41,8 +51,21 @@ public class NettyChannelServerListener implements ApplicationRunner {
 			// 1.1 获取server配置bean列表
 			Map<String, ServerConfig> confs = SpringContextHolder.getBeansOfType(ServerConfig.class);
 			if (confs != null) {
-				for (ServerConfig conf : confs.values())
-					// 1.1.1 Starting.
+				List<ServerConfig> startups = new ArrayList<>();
+				for (ServerConfig conf : confs.values()) {
+					if (conf.isStartup())
+						startups.add(conf);
+					else
+						logger.warn("Non startup netty server({}:{}).", conf.getPort(), conf.getName());
+				}
+
+				// 1.1.1 Shared event loops of all servers.
+				if (!startups.isEmpty())
+					this.topology = new EventLoopTopology(startups, this.config.getWorkerThreads(),
+							this.config.getBusinessThreads());
+
+				// 1.1.2 Starting.
+				for (ServerConfig conf : startups)
 					this.startup(conf);
 			}
 
@@ -51,6 +74,29 @@ public class NettyChannelServerListener implements ApplicationRunner {
 		}
 	}
 
+	/**
+	 * Shared event loop topology, null if no server is started.
+	 * 
+	 * @return
+	 */
+	public EventLoopTopology getTopology() {
+		return topology;
+	}
+
+	/**
+	 * Stop accepting the new connections of all servers(e.g. draining).
+	 */
+	public void stopAccept() {
+		for (NettyChannelServer server : this.servers)
+			server.stopAccept();
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (this.topology != null)
+			this.topology.shutdownGracefully();
+	}
+
 	/**
 	 * 启动监听.
 	 * 
@@ -58,12 +104,14 @@ public class NettyChannelServerListener implements ApplicationRunner {
 	 */
 	private void startup(ServerConfig conf) {
 		try {
-			// 控制监听服务启动
-			if (conf.isStartup()) {
-				new NettyChannelServer(conf.getName(), config.getHostname(), conf.getPort(), conf.getBacklog(),
-						conf.getHandlerInitializer()).doStart();
-			} else
-				logger.warn("Non startup netty server({}:{}).", conf.getPort(), conf.getName());
+			NettyChannelServer server = new NettyChannelServer(conf.getName(), config.getHostname(), conf.getPort(),
+					conf.getBacklog(), conf.getHandlerInitializer(), this.topology);
+			server.setAcceptors(conf.getAcceptors());
+			server.setWaterMark(conf.getWriteBufferLowWaterMark(), conf.getWriteBufferHighWaterMark());
+			if (AdmissionHandler.isEnabled(conf))
+				server.setAdmission(new AdmissionHandler(conf));
+			server.doStart();
+			this.servers.add(server);
 		} catch (Exception e) {
 			logger.error("启动Netty服务列表失败. (" + conf.getPort() + ")", e);
 		}
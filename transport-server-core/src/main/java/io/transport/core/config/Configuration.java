@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.transport.core.protocol.handler.ChildHandlerInitializer;
+import io.transport.core.protocol.handler.OutboundQueueHandler.OverflowPolicy;
 import io.transport.core.protocol.handler.ws.WSChildHandlerInitializer;
 
 /**
@@ -72,6 +73,14 @@ public class Configuration {
 	 */
 	@Value("${ctl-rest-auth-pkey:rest_auth_}")
 	private String ctlRestAuthPkey = "rest_auth_";
+	/**
+	 * Hash tag the keys of a device(`{deviceId}`), so the client info and
+	 * actor keys of a device are in the same slot of the Redis cluster, and
+	 * are written in one round-trip.<br/>
+	 * Note: The key format is changed, all nodes must use the same setting.
+	 */
+	@Value("${core.ctl-hash-tag:true}")
+	private boolean ctlHashTag = true;
 
 	/**
 	 * Push service deployment mode, if ROUTING mode, the client login success
@@ -84,6 +93,64 @@ public class Configuration {
 
 	@Value("${core.hostname}")
 	private String hostname;
+	/**
+	 * Total IO worker threads shared by the RPC/WebSocket servers, 0 means
+	 * availableProcessors().
+	 */
+	@Value("${core.worker-threads:0}")
+	private int workerThreads = 0;
+	/**
+	 * Business executor threads(blocking Redis/Kafka work is executed out of
+	 * the IO loops), 0 means availableProcessors() * 2, negative means
+	 * disabled.
+	 */
+	@Value("${core.business-threads:0}")
+	private int businessThreads = 0;
+	/**
+	 * Graceful drain(rolling restart), the number of clients redirected to
+	 * the other active nodes in each wave.
+	 */
+	@Value("${core.drain.wave-size:200}")
+	private int drainWaveSize = 200;
+	/**
+	 * Interval(ms) between the redirect waves.
+	 */
+	@Value("${core.drain.wave-interval-ms:1000}")
+	private long drainWaveIntervalMs = 1000L;
+	/**
+	 * Delay(ms) of closing the redirected connection, the in-flight pushes
+	 * and acks of the client are still delivered in the meantime.
+	 */
+	@Value("${core.drain.close-delay-ms:3000}")
+	private long drainCloseDelayMs = 3000L;
+	/**
+	 * The max time(seconds) of the whole drain(including waiting for the
+	 * in-flight deliveries).
+	 */
+	@Value("${core.drain.timeout-seconds:60}")
+	private int drainTimeoutSeconds = 60;
+	/**
+	 * Whether to drain automatically when the application is shutting down.
+	 */
+	@Value("${core.drain.on-shutdown:true}")
+	private boolean drainOnShutdown = true;
+	/**
+	 * Near cache of the remote client lookups(deviceId to the client info),
+	 * the max size(not more than 0 means disabled).
+	 */
+	@Value("${core.client-cache.max-size:100000}")
+	private long clientCacheMaxSize = 100000L;
+	/**
+	 * Expiration(seconds) of the cached client info after it is loaded, it
+	 * bounds the staleness if an invalidation is missed.
+	 */
+	@Value("${core.client-cache.expire-seconds:300}")
+	private int clientCacheExpireSeconds = 300;
+	/**
+	 * Redis pub/sub channel of the client info invalidation.
+	 */
+	@Value("${core.client-cache.invalidation-channel:client_invalidation}")
+	private String clientCacheInvalidationChannel = "client_invalidation";
 	@Autowired
 	private RpcConfig rpcConfig;
 	@Autowired
@@ -129,6 +196,35 @@ public class Configuration {
 		return this.getCtlPKey() + ctlRestAuthPkey;
 	}
 
+	public boolean isCtlHashTag() {
+		return ctlHashTag;
+	}
+
+	/**
+	 * Client info key of the device.
+	 * 
+	 * @param deviceId
+	 * @return
+	 */
+	public String getDeviceIdClientInfoKey(String deviceId) {
+		return this.getCtlDeviceIdClientInfoPKey() + this.deviceTag(deviceId);
+	}
+
+	/**
+	 * Actor key of the device.
+	 * 
+	 * @param actorAlias
+	 *            Actor name(deviceId)
+	 * @return
+	 */
+	public String getDeviceIdActorKey(String actorAlias) {
+		return this.getCtlDeviceIdActorPkey() + this.deviceTag(actorAlias);
+	}
+
+	private String deviceTag(String deviceId) {
+		return this.ctlHashTag ? "{" + deviceId + "}" : deviceId;
+	}
+
 	public DeploymentType getDeploymentType() {
 		return deploymentType;
 	}
@@ -141,6 +237,86 @@ public class Configuration {
 		this.hostname = inetHostname;
 	}
 
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	public void setWorkerThreads(int workerThreads) {
+		this.workerThreads = workerThreads;
+	}
+
+	public int getBusinessThreads() {
+		return businessThreads;
+	}
+
+	public void setBusinessThreads(int businessThreads) {
+		this.businessThreads = businessThreads;
+	}
+
+	public int getDrainWaveSize() {
+		return drainWaveSize;
+	}
+
+	public void setDrainWaveSize(int drainWaveSize) {
+		this.drainWaveSize = drainWaveSize;
+	}
+
+	public long getDrainWaveIntervalMs() {
+		return drainWaveIntervalMs;
+	}
+
+	public void setDrainWaveIntervalMs(long drainWaveIntervalMs) {
+		this.drainWaveIntervalMs = drainWaveIntervalMs;
+	}
+
+	public long getDrainCloseDelayMs() {
+		return drainCloseDelayMs;
+	}
+
+	public void setDrainCloseDelayMs(long drainCloseDelayMs) {
+		this.drainCloseDelayMs = drainCloseDelayMs;
+	}
+
+	public int getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+
+	public void setDrainTimeoutSeconds(int drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+
+	public boolean isDrainOnShutdown() {
+		return drainOnShutdown;
+	}
+
+	public void setDrainOnShutdown(boolean drainOnShutdown) {
+		this.drainOnShutdown = drainOnShutdown;
+	}
+
+	public long getClientCacheMaxSize() {
+		return clientCacheMaxSize;
+	}
+
+	public void setClientCacheMaxSize(long clientCacheMaxSize) {
+		this.clientCacheMaxSize = clientCacheMaxSize;
+	}
+
+	public int getClientCacheExpireSeconds() {
+		return clientCacheExpireSeconds;
+	}
+
+	public void setClientCacheExpireSeconds(int clientCacheExpireSeconds) {
+		this.clientCacheExpireSeconds = clientCacheExpireSeconds;
+	}
+
+	public String getClientCacheInvalidationChannel() {
+		return getCtlPKey() + clientCacheInvalidationChannel;
+	}
+
+	public void setClientCacheInvalidationChannel(String clientCacheInvalidationChannel) {
+		this.clientCacheInvalidationChannel = clientCacheInvalidationChannel;
+	}
+
 	//
 	// RPC/WebSocket配置
 	//
@@ -181,6 +357,67 @@ public class Configuration {
 		private int port = 9090;
 		@Value("${core.rpc.backlog:1024}")
 		private int backlog = 1024;
+		/**
+		 * IO transport type(AUTO: native epoll on linux, otherwise NIO).
+		 */
+		@Value("${core.rpc.transport:AUTO}")
+		private TransportType transport = TransportType.AUTO;
+		/**
+		 * The number of acceptor channels bound to the same port with
+		 * SO_REUSEPORT(only for the native epoll transport).
+		 */
+		@Value("${core.rpc.acceptors:1}")
+		private int acceptors = 1;
+		/**
+		 * The number of worker threads of the dedicated partition(carved from
+		 * `core.worker-threads`), 0 means using the shared worker loops.
+		 */
+		@Value("${core.rpc.io-threads:0}")
+		private int ioThreads = 0;
+		/**
+		 * The max number of pending(consolidated) flushes of the channel,
+		 * not more than 1 means that the flush consolidation is disabled.
+		 */
+		@Value("${core.rpc.flush-max-pending:64}")
+		private int flushMaxPending = 64;
+		/**
+		 * The max delay(microseconds) of the consolidated flushes out of
+		 * reading, 0 means the next event loop iteration.
+		 */
+		@Value("${core.rpc.flush-latency-micros:0}")
+		private long flushLatencyMicros = 0;
+		/**
+		 * Write buffer water marks(bytes) of the channel, the channel is not
+		 * writable when the outbound buffer exceeds the high water mark.
+		 */
+		@Value("${core.rpc.write-buffer-low-water-mark:32768}")
+		private int writeBufferLowWaterMark = 32768;
+		@Value("${core.rpc.write-buffer-high-water-mark:65536}")
+		private int writeBufferHighWaterMark = 65536;
+		/**
+		 * The max number of queued messages when the channel is not
+		 * writable, 0 means that the outbound queue is disabled.
+		 */
+		@Value("${core.rpc.outbound-queue-size:256}")
+		private int outboundQueueSize = 256;
+		/**
+		 * Policy when the outbound queue is full.
+		 */
+		@Value("${core.rpc.outbound-overflow-policy:DROP_OLDEST}")
+		private OverflowPolicy outboundOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+		/**
+		 * Admission control(token bucket), the max rate(per second) of the
+		 * new connections and the CONNECT attempts, of the global and each
+		 * source IP, not more than 0 means unlimited.
+		 */
+		@Value("${core.rpc.admission.accept-rate:0}")
+		private double acceptRate = 0;
+		@Value("${core.rpc.admission.accept-ip-rate:0}")
+		private double acceptIpRate = 0;
+		@Value("${core.rpc.admission.connect-rate:0}")
+		private double connectRate = 0;
+		@Value("${core.rpc.admission.connect-ip-rate:0}")
+		private double connectIpRate = 0;
 		/**
 		 * Default connection number limit of the same appId.
 		 */
@@ -207,6 +444,62 @@ public class Configuration {
 		private String loggingLevel;
 		@Value("${core.rpc.max-content-len:32768}")
 		private int maxContentLength; // Prevent DDOS attack.
+		/**
+		 * Whether to allow the client to negotiate the compact(V2) wire
+		 * format at connect.
+		 */
+		@Value("${core.rpc.compact-enable:true}")
+		private boolean compactEnable = true;
+		/**
+		 * Payloads not less than the threshold(bytes) are compressed(deflate)
+		 * if the client supports it, negative means that compression is
+		 * disabled.
+		 */
+		@Value("${core.rpc.compress-threshold:1024}")
+		private int compressThreshold = 1024;
+		@Value("${core.rpc.ssl.enable:false}")
+		private Boolean sslEnable = false;
+		@Value("${core.rpc.ssl.keycert-chainfile:}")
+		private String keyCertChainFile;
+		@Value("${core.rpc.ssl.keyfile:}")
+		private String keyFile;
+		/**
+		 * TLS provider(AUTO/OPENSSL/JDK), AUTO uses OpenSSL(netty-tcnative)
+		 * if it is available, otherwise JDK SSL.
+		 */
+		@Value("${core.rpc.ssl.provider:AUTO}")
+		private SslProviderType sslProvider = SslProviderType.AUTO;
+		/**
+		 * TLS session cache size(session id resumption), 0 means the
+		 * default of the provider.
+		 */
+		@Value("${core.rpc.ssl.session-cache-size:20480}")
+		private long sslSessionCacheSize = 20480;
+		/**
+		 * TLS session(and ticket) timeout seconds, 0 means the default of
+		 * the provider.
+		 */
+		@Value("${core.rpc.ssl.session-timeout:3600}")
+		private long sslSessionTimeout = 3600;
+		/**
+		 * Session ticket key file(48 bytes: name/hmac/aes, shared by all
+		 * nodes so the tickets can be resumed on any node), empty means a
+		 * random key of the process(OpenSSL only).
+		 */
+		@Value("${core.rpc.ssl.ticket-keyfile:}")
+		private String sslTicketKeyFile;
+		/**
+		 * ALPN protocols(comma separated, OpenSSL only), empty means
+		 * disabled.
+		 */
+		@Value("${core.rpc.ssl.alpn-protocols:transport}")
+		private String sslAlpnProtocols = "transport";
+		/**
+		 * Interval seconds of checking the certificate files for the hot
+		 * reload, not more than 0 means disabled.
+		 */
+		@Value("${core.rpc.ssl.reload-interval-seconds:60}")
+		private int sslReloadIntervalSeconds = 60;
 
 		@Override
 		public String getName() {
@@ -240,6 +533,121 @@ public class Configuration {
 			this.backlog = backlog;
 		}
 
+		@Override
+		public TransportType getTransport() {
+			return transport;
+		}
+
+		public void setTransport(TransportType transport) {
+			this.transport = transport;
+		}
+
+		@Override
+		public int getAcceptors() {
+			return acceptors;
+		}
+
+		public void setAcceptors(int acceptors) {
+			this.acceptors = acceptors;
+		}
+
+		@Override
+		public int getIoThreads() {
+			return ioThreads;
+		}
+
+		public void setIoThreads(int ioThreads) {
+			this.ioThreads = ioThreads;
+		}
+
+		@Override
+		public int getFlushMaxPending() {
+			return flushMaxPending;
+		}
+
+		public void setFlushMaxPending(int flushMaxPending) {
+			this.flushMaxPending = flushMaxPending;
+		}
+
+		@Override
+		public long getFlushLatencyMicros() {
+			return flushLatencyMicros;
+		}
+
+		public void setFlushLatencyMicros(long flushLatencyMicros) {
+			this.flushLatencyMicros = flushLatencyMicros;
+		}
+
+		@Override
+		public int getWriteBufferLowWaterMark() {
+			return writeBufferLowWaterMark;
+		}
+
+		public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+			this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+		}
+
+		@Override
+		public int getWriteBufferHighWaterMark() {
+			return writeBufferHighWaterMark;
+		}
+
+		public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+			this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+		}
+
+		public int getOutboundQueueSize() {
+			return outboundQueueSize;
+		}
+
+		public void setOutboundQueueSize(int outboundQueueSize) {
+			this.outboundQueueSize = outboundQueueSize;
+		}
+
+		public OverflowPolicy getOutboundOverflowPolicy() {
+			return outboundOverflowPolicy;
+		}
+
+		public void setOutboundOverflowPolicy(OverflowPolicy outboundOverflowPolicy) {
+			this.outboundOverflowPolicy = outboundOverflowPolicy;
+		}
+
+		@Override
+		public double getAcceptRate() {
+			return acceptRate;
+		}
+
+		public void setAcceptRate(double acceptRate) {
+			this.acceptRate = acceptRate;
+		}
+
+		@Override
+		public double getAcceptIpRate() {
+			return acceptIpRate;
+		}
+
+		public void setAcceptIpRate(double acceptIpRate) {
+			this.acceptIpRate = acceptIpRate;
+		}
+
+		@Override
+		public double getConnectRate() {
+			return connectRate;
+		}
+
+		public void setConnectRate(double connectRate) {
+			this.connectRate = connectRate;
+		}
+
+		@Override
+		public double getConnectIpRate() {
+			return connectIpRate;
+		}
+
+		public void setConnectIpRate(double connectIpRate) {
+			this.connectIpRate = connectIpRate;
+		}
+
 		public Integer getDefaultAppIdConnects() {
 			return defaultAppIdConnects;
 		}
@@ -317,6 +725,103 @@ public class Configuration {
 			this.maxContentLength = maxContentLength;
 		}
 
+		public boolean isCompactEnable() {
+			return compactEnable;
+		}
+
+		public void setCompactEnable(boolean compactEnable) {
+			this.compactEnable = compactEnable;
+		}
+
+		public int getCompressThreshold() {
+			return compressThreshold;
+		}
+
+		public void setCompressThreshold(int compressThreshold) {
+			this.compressThreshold = compressThreshold;
+		}
+
+		@Override
+		public Boolean getSslEnable() {
+			return sslEnable;
+		}
+
+		public void setSslEnable(Boolean sslEnable) {
+			this.sslEnable = sslEnable;
+		}
+
+		@Override
+		public String getKeyCertChainFile() {
+			return keyCertChainFile;
+		}
+
+		public void setKeyCertChainFile(String keyCertChainFile) {
+			this.keyCertChainFile = keyCertChainFile;
+		}
+
+		@Override
+		public String getKeyFile() {
+			return keyFile;
+		}
+
+		public void setKeyFile(String keyFile) {
+			this.keyFile = keyFile;
+		}
+
+		@Override
+		public SslProviderType getSslProvider() {
+			return sslProvider;
+		}
+
+		public void setSslProvider(SslProviderType sslProvider) {
+			this.sslProvider = sslProvider;
+		}
+
+		@Override
+		public long getSslSessionCacheSize() {
+			return sslSessionCacheSize;
+		}
+
+		public void setSslSessionCacheSize(long sslSessionCacheSize) {
+			this.sslSessionCacheSize = sslSessionCacheSize;
+		}
+
+		@Override
+		public long getSslSessionTimeout() {
+			return sslSessionTimeout;
+		}
+
+		public void setSslSessionTimeout(long sslSessionTimeout) {
+			this.sslSessionTimeout = sslSessionTimeout;
+		}
+
+		@Override
+		public String getSslTicketKeyFile() {
+			return sslTicketKeyFile;
+		}
+
+		public void setSslTicketKeyFile(String sslTicketKeyFile) {
+			this.sslTicketKeyFile = sslTicketKeyFile;
+		}
+
+		@Override
+		public String getSslAlpnProtocols() {
+			return sslAlpnProtocols;
+		}
+
+		public void setSslAlpnProtocols(String sslAlpnProtocols) {
+			this.sslAlpnProtocols = sslAlpnProtocols;
+		}
+
+		@Override
+		public int getSslReloadIntervalSeconds() {
+			return sslReloadIntervalSeconds;
+		}
+
+		public void setSslReloadIntervalSeconds(int sslReloadIntervalSeconds) {
+			this.sslReloadIntervalSeconds = sslReloadIntervalSeconds;
+		}
+
 	}
 
 	/**
@@ -339,6 +844,67 @@ public class Configuration {
 		private int port = 9091;
 		@Value("${core.websocket.backlog:1024}")
 		private int backlog = 1024;
+		/**
+		 * IO transport type(AUTO: native epoll on linux, otherwise NIO).
+		 */
+		@Value("${core.websocket.transport:AUTO}")
+		private TransportType transport = TransportType.AUTO;
+		/**
+		 * The number of acceptor channels bound to the same port with
+		 * SO_REUSEPORT(only for the native epoll transport).
+		 */
+		@Value("${core.websocket.acceptors:1}")
+		private int acceptors = 1;
+		/**
+		 * The number of worker threads of the dedicated partition(carved from
+		 * `core.worker-threads`), 0 means using the shared worker loops.
+		 */
+		@Value("${core.websocket.io-threads:0}")
+		private int ioThreads = 0;
+		/**
+		 * The max number of pending(consolidated) flushes of the channel,
+		 * not more than 1 means that the flush consolidation is disabled.
+		 */
+		@Value("${core.websocket.flush-max-pending:64}")
+		private int flushMaxPending = 64;
+		/**
+		 * The max delay(microseconds) of the consolidated flushes out of
+		 * reading, 0 means the next event loop iteration.
+		 */
+		@Value("${core.websocket.flush-latency-micros:0}")
+		private long flushLatencyMicros = 0;
+		/**
+		 * Write buffer water marks(bytes) of the channel, the channel is not
+		 * writable when the outbound buffer exceeds the high water mark.
+		 */
+		@Value("${core.websocket.write-buffer-low-water-mark:32768}")
+		private int writeBufferLowWaterMark = 32768;
+		@Value("${core.websocket.write-buffer-high-water-mark:65536}")
+		private int writeBufferHighWaterMark = 65536;
+		/**
+		 * The max number of queued messages when the channel is not
+		 * writable, 0 means that the outbound queue is disabled.
+		 */
+		@Value("${core.websocket.outbound-queue-size:256}")
+		private int outboundQueueSize = 256;
+		/**
+		 * Policy when the outbound queue is full.
+		 */
+		@Value("${core.websocket.outbound-overflow-policy:DROP_OLDEST}")
+		private OverflowPolicy outboundOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+		/**
+		 * Admission control(token bucket), the max rate(per second) of the
+		 * new connections and the CONNECT attempts, of the global and each
+		 * source IP, not more than 0 means unlimited.
+		 */
+		@Value("${core.websocket.admission.accept-rate:0}")
+		private double acceptRate = 0;
+		@Value("${core.websocket.admission.accept-ip-rate:0}")
+		private double acceptIpRate = 0;
+		@Value("${core.websocket.admission.connect-rate:0}")
+		private double connectRate = 0;
+		@Value("${core.websocket.admission.connect-ip-rate:0}")
+		private double connectIpRate = 0;
 		/**
 		 * Default connection number limit of the same appId.
 		 */
@@ -368,6 +934,52 @@ public class Configuration {
 		private String websocketPath;
 		@Value("${core.websocket.allow-extensions:false}")
 		private Boolean allowExtensions;
+		/**
+		 * Whether to support the binary subprotocol(the same frames as the
+		 * RPC codec), the text(JSON) mode is the fallback.
+		 */
+		@Value("${core.websocket.binary-enable:true}")
+		private Boolean binaryEnable = true;
+		/**
+		 * Whether to support the permessage-deflate extension(RFC7692).
+		 */
+		@Value("${core.websocket.compression.enable:false}")
+		private boolean compressionEnable = false;
+		/**
+		 * Deflate compression level(1-9).
+		 */
+		@Value("${core.websocket.compression.level:6}")
+		private int compressionLevel = 6;
+		/**
+		 * The frames less than the min size(bytes) are sent uncompressed.
+		 */
+		@Value("${core.websocket.compression.min-size:256}")
+		private int compressionMinSize = 256;
+		/**
+		 * The server does not keep the compression context between the
+		 * messages(no persistent deflater memory of the connection, but the
+		 * compression ratio of the repetitive messages is lower).
+		 */
+		@Value("${core.websocket.compression.server-no-context-takeover:false}")
+		private boolean compressionServerNoContext = false;
+		/**
+		 * Request the client not to keep the compression context(if the
+		 * client offers it).
+		 */
+		@Value("${core.websocket.compression.client-no-context-takeover:false}")
+		private boolean compressionClientNoContext = false;
+		/**
+		 * LZ77 window bits of the server compression(9-15), the deflater
+		 * memory of the connection is about 2^(bits+2) + 128KB.
+		 */
+		@Value("${core.websocket.compression.server-window-bits:15}")
+		private int compressionServerWindowBits = 15;
+		/**
+		 * LZ77 window bits of the client compression(9-15, if the client
+		 * offers it).
+		 */
+		@Value("${core.websocket.compression.client-window-bits:15}")
+		private int compressionClientWindowBits = 15;
 		@Value("${core.websocket.http-aggregator.max-content-len:65536}")
 		private Integer httpAggregatorMaxContentLen;
 		@Value("${core.websocket.ssl.enable:false}")
@@ -376,6 +988,43 @@ public class Configuration {
 		private String keyCertChainFile;
 		@Value("${core.websocket.ssl.keyfile:}")
 		private String keyFile;
+		/**
+		 * TLS provider(AUTO/OPENSSL/JDK), AUTO uses OpenSSL(netty-tcnative)
+		 * if it is available, otherwise JDK SSL.
+		 */
+		@Value("${core.websocket.ssl.provider:AUTO}")
+		private SslProviderType sslProvider = SslProviderType.AUTO;
+		/**
+		 * TLS session cache size(session id resumption), 0 means the
+		 * default of the provider.
+		 */
+		@Value("${core.websocket.ssl.session-cache-size:20480}")
+		private long sslSessionCacheSize = 20480;
+		/**
+		 * TLS session(and ticket) timeout seconds, 0 means the default of
+		 * the provider.
+		 */
+		@Value("${core.websocket.ssl.session-timeout:3600}")
+		private long sslSessionTimeout = 3600;
+		/**
+		 * Session ticket key file(48 bytes: name/hmac/aes, shared by all
+		 * nodes so the tickets can be resumed on any node), empty means a
+		 * random key of the process(OpenSSL only).
+		 */
+		@Value("${core.websocket.ssl.ticket-keyfile:}")
+		private String sslTicketKeyFile;
+		/**
+		 * ALPN protocols(comma separated, OpenSSL only), empty means
+		 * disabled.
+		 */
+		@Value("${core.websocket.ssl.alpn-protocols:http/1.1}")
+		private String sslAlpnProtocols = "http/1.1";
+		/**
+		 * Interval seconds of checking the certificate files for the hot
+		 * reload, not more than 0 means disabled.
+		 */
+		@Value("${core.websocket.ssl.reload-interval-seconds:60}")
+		private int sslReloadIntervalSeconds = 60;
 
 		@Override
 		public String getName() {
@@ -409,6 +1058,121 @@ public class Configuration {
 			this.backlog = backlog;
 		}
 
+		@Override
+		public TransportType getTransport() {
+			return transport;
+		}
+
+		public void setTransport(TransportType transport) {
+			this.transport = transport;
+		}
+
+		@Override
+		public int getAcceptors() {
+			return acceptors;
+		}
+
+		public void setAcceptors(int acceptors) {
+			this.acceptors = acceptors;
+		}
+
+		@Override
+		public int getIoThreads() {
+			return ioThreads;
+		}
+
+		public void setIoThreads(int ioThreads) {
+			this.ioThreads = ioThreads;
+		}
+
+		@Override
+		public int getFlushMaxPending() {
+			return flushMaxPending;
+		}
+
+		public void setFlushMaxPending(int flushMaxPending) {
+			this.flushMaxPending = flushMaxPending;
+		}
+
+		@Override
+		public long getFlushLatencyMicros() {
+			return flushLatencyMicros;
+		}
+
+		public void setFlushLatencyMicros(long flushLatencyMicros) {
+			this.flushLatencyMicros = flushLatencyMicros;
+		}
+
+		@Override
+		public int getWriteBufferLowWaterMark() {
+			return writeBufferLowWaterMark;
+		}
+
+		public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+			this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+		}
+
+		@Override
+		public int getWriteBufferHighWaterMark() {
+			return writeBufferHighWaterMark;
+		}
+
+		public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+			this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+		}
+
+		public int getOutboundQueueSize() {
+			return outboundQueueSize;
+		}
+
+		public void setOutboundQueueSize(int outboundQueueSize) {
+			this.outboundQueueSize = outboundQueueSize;
+		}
+
+		public OverflowPolicy getOutboundOverflowPolicy() {
+			return outboundOverflowPolicy;
+		}
+
+		public void setOutboundOverflowPolicy(OverflowPolicy outboundOverflowPolicy) {
+			this.outboundOverflowPolicy = outboundOverflowPolicy;
+		}
+
+		@Override
+		public double getAcceptRate() {
+			return acceptRate;
+		}
+
+		public void setAcceptRate(double acceptRate) {
+			this.acceptRate = acceptRate;
+		}
+
+		@Override
+		public double getAcceptIpRate() {
+			return acceptIpRate;
+		}
+
+		public void setAcceptIpRate(double acceptIpRate) {
+			this.acceptIpRate = acceptIpRate;
+		}
+
+		@Override
+		public double getConnectRate() {
+			return connectRate;
+		}
+
+		public void setConnectRate(double connectRate) {
+			this.connectRate = connectRate;
+		}
+
+		@Override
+		public double getConnectIpRate() {
+			return connectIpRate;
+		}
+
+		public void setConnectIpRate(double connectIpRate) {
+			this.connectIpRate = connectIpRate;
+		}
+
 		public Integer getDefaultAppIdConnects() {
 			return defaultAppIdConnects;
 		}
@@ -474,6 +1238,70 @@ public class Configuration {
 			this.allowExtensions = allowExtensions;
 		}
 
+		public Boolean getBinaryEnable() {
+			return binaryEnable;
+		}
+
+		public void setBinaryEnable(Boolean binaryEnable) {
+			this.binaryEnable = binaryEnable;
+		}
+
+		public boolean isCompressionEnable() {
+			return compressionEnable;
+		}
+
+		public void setCompressionEnable(boolean compressionEnable) {
+			this.compressionEnable = compressionEnable;
+		}
+
+		public int getCompressionLevel() {
+			return compressionLevel;
+		}
+
+		public void setCompressionLevel(int compressionLevel) {
+			this.compressionLevel = compressionLevel;
+		}
+
+		public int getCompressionMinSize() {
+			return compressionMinSize;
+		}
+
+		public void setCompressionMinSize(int compressionMinSize) {
+			this.compressionMinSize = compressionMinSize;
+		}
+
+		public boolean isCompressionServerNoContext() {
+			return compressionServerNoContext;
+		}
+
+		public void setCompressionServerNoContext(boolean compressionServerNoContext) {
+			this.compressionServerNoContext = compressionServerNoContext;
+		}
+
+		public boolean isCompressionClientNoContext() {
+			return compressionClientNoContext;
+		}
+
+		public void setCompressionClientNoContext(boolean compressionClientNoContext) {
+			this.compressionClientNoContext = compressionClientNoContext;
+		}
+
+		public int getCompressionServerWindowBits() {
+			return compressionServerWindowBits;
+		}
+
+		public void setCompressionServerWindowBits(int compressionServerWindowBits) {
+			this.compressionServerWindowBits = compressionServerWindowBits;
+		}
+
+		public int getCompressionClientWindowBits() {
+			return compressionClientWindowBits;
+		}
+
+		public void setCompressionClientWindowBits(int compressionClientWindowBits) {
+			this.compressionClientWindowBits = compressionClientWindowBits;
+		}
+
 		public Integer getHttpAggregatorMaxContentLen() {
 			return httpAggregatorMaxContentLen;
 		}
@@ -486,6 +1314,7 @@ public class Configuration {
 			this.name = name;
 		}
 
+		@Override
 		public Boolean getSslEnable() {
 			return sslEnable;
 		}
@@ -494,6 +1323,7 @@ public class Configuration {
 			this.sslEnable = sslEnable;
 		}
 
+		@Override
 		public String getKeyCertChainFile() {
 			return keyCertChainFile;
 		}
@@ -502,6 +1332,7 @@ public class Configuration {
 			this.keyCertChainFile = keyCertChainFile;
 		}
 
+		@Override
 		public String getKeyFile() {
 			return keyFile;
 		}
@@ -510,6 +1341,60 @@ public class Configuration {
 			this.keyFile = keyFile;
 		}
 
+		@Override
+		public SslProviderType getSslProvider() {
+			return sslProvider;
+		}
+
+		public void setSslProvider(SslProviderType sslProvider) {
+			this.sslProvider = sslProvider;
+		}
+
+		@Override
+		public long getSslSessionCacheSize() {
+			return sslSessionCacheSize;
+		}
+
+		public void setSslSessionCacheSize(long sslSessionCacheSize) {
+			this.sslSessionCacheSize = sslSessionCacheSize;
+		}
+
+		@Override
+		public long getSslSessionTimeout() {
+			return sslSessionTimeout;
+		}
+
+		public void setSslSessionTimeout(long sslSessionTimeout) {
+			this.sslSessionTimeout = sslSessionTimeout;
+		}
+
+		@Override
+		public String getSslTicketKeyFile() {
+			return sslTicketKeyFile;
+		}
+
+		public void setSslTicketKeyFile(String sslTicketKeyFile) {
+			this.sslTicketKeyFile = sslTicketKeyFile;
+		}
+
+		@Override
+		public String getSslAlpnProtocols() {
+			return sslAlpnProtocols;
+		}
+
+		public void setSslAlpnProtocols(String sslAlpnProtocols) {
+			this.sslAlpnProtocols = sslAlpnProtocols;
+		}
+
+		@Override
+		public int getSslReloadIntervalSeconds() {
+			return sslReloadIntervalSeconds;
+		}
+
+		public void setSslReloadIntervalSeconds(int sslReloadIntervalSeconds) {
+			this.sslReloadIntervalSeconds = sslReloadIntervalSeconds;
+		}
+
 		public Boolean getLoggingEnable() {
 			return loggingEnable;
 		}
@@ -546,9 +1431,100 @@ public class Configuration {
 
 		int getBacklog();
 
+		TransportType getTransport();
+
+		int getAcceptors();
+
+		int getIoThreads();
+
+		int getFlushMaxPending();
+
+		long getFlushLatencyMicros();
+
+		int getWriteBufferLowWaterMark();
+
+		int getWriteBufferHighWaterMark();
+
+		double getAcceptRate();
+
+		double getAcceptIpRate();
+
+		double getConnectRate();
+
+		double getConnectIpRate();
+
+		Boolean getSslEnable();
+
+		String getKeyCertChainFile();
+
+		String getKeyFile();
+
+		SslProviderType getSslProvider();
+
+		long getSslSessionCacheSize();
+
+		long getSslSessionTimeout();
+
+		String getSslTicketKeyFile();
+
+		String getSslAlpnProtocols();
+
+		int getSslReloadIntervalSeconds();
+
 		ChannelInitializer<SocketChannel> getHandlerInitializer();
 	}
 
+	/**
+	 * Netty IO transport type.
+	 * 
+	 * @author Wangl.sir <983708408@qq.com>
+	 * @version v1.0
+	 * @date 2018年5月14日
+	 * @since
+	 */
+	public static enum TransportType {
+
+		/**
+		 * Native epoll transport if it is available(linux), otherwise NIO.
+		 */
+		AUTO,
+		/**
+		 * Native epoll transport(edge-triggered), fallback to NIO if it is
+		 * unavailable.
+		 */
+		EPOLL,
+		/**
+		 * JDK NIO transport.
+		 */
+		NIO;
+
+	}
+
+	/**
+	 * TLS provider type.
+	 * 
+	 * @author Wangl.sir <983708408@qq.com>
+	 * @version v1.0
+	 * @date 2018年5月24日
+	 * @since
+	 */
+	public static enum SslProviderType {
+
+		/**
+		 * OpenSSL(netty-tcnative) if it is available, otherwise JDK SSL.
+		 */
+		AUTO,
+		/**
+		 * OpenSSL(netty-tcnative), fallback to JDK SSL if it is unavailable.
+		 */
+		OPENSSL,
+		/**
+		 * JDK SSL.
+		 */
+		JDK;
+
+	}
+
 	/**
 	 * Transporter push service deployment mode, if ROUTING mode, the client
 	 * login success will receive the cluster node list information returned by
@@ -0,0 +1,241 @@
+package io.transport.core.protocol.codec;
+
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.MsgType;
+
+/**
+ * Single-pass JSON binder of the WebSocket text frames.<br/>
+ * The UTF-8 content of the frame is decoded into the char buffer of the
+ * current thread, the `head.actionId` is scanned from it(only the members of
+ * the `head` object, the string literals and other values are skipped), and
+ * then it is bound directly to the message class by the cached deserializer
+ * of the type(no intermediate String or JSONObject tree).
+ *
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月10日
+ * @since
+ */
+public final class JSONFrameBinder {
+
+	final private static char[] HEAD_KEY = "head".toCharArray();
+	final private static char[] ACTION_ID_KEY = "actionId".toCharArray();
+	/**
+	 * The max length of the cached char buffer of the current thread(larger
+	 * frames use a temporary buffer).
+	 */
+	final private static int MAX_CACHED_CHARS = 64 * 1024;
+
+	final private static ParserConfig CONFIG = ParserConfig.getGlobalInstance();
+	/**
+	 * Deserializer of message types(index: actionId & 0xFF).
+	 */
+	final private static ObjectDeserializer[] BINDERS = new ObjectDeserializer[256];
+
+	final private static FastThreadLocal<CharsetDecoder> DECODERS = new FastThreadLocal<CharsetDecoder>() {
+		@Override
+		protected CharsetDecoder initialValue() {
+			return CharsetUtil.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+	};
+	final private static FastThreadLocal<CharBuffer> CHARS = new FastThreadLocal<CharBuffer>() {
+		@Override
+		protected CharBuffer initialValue() {
+			return CharBuffer.allocate(1024);
+		}
+	};
+
+	private JSONFrameBinder() {
+	}
+
+	/**
+	 * Bind the readable content of the frame to the message of its
+	 * `head.actionId` type.
+	 *
+	 * @param in
+	 *            frame content
+	 * @return message, or null if the content is empty or the actionId is
+	 *         unknown.
+	 */
+	public static Message bind(ByteBuf in) {
+		int len = in.readableBytes();
+		if (len == 0)
+			return null;
+
+		// Decode UTF-8(the number of chars never exceeds the number of bytes).
+		CharBuffer chars = charBuffer(len);
+		CharsetDecoder decoder = DECODERS.get().reset();
+		decoder.decode(in.nioBuffer(), chars, true);
+		decoder.flush(chars);
+		char[] input = chars.array();
+		int inputLen = chars.position();
+
+		// Message type(fallback to the full parse if it is not found by
+		// scanning, e.g. the escaped keys).
+		int actionId = scanActionId(input, inputLen);
+		if (actionId < 0)
+			actionId = parseActionId(input, inputLen);
+		MsgType type = actionId < 0 ? null : MsgType.ofType((byte) actionId);
+		if (type == null || type.getMsgClass() == null)
+			return null;
+
+		ObjectDeserializer binder = BINDERS[actionId];
+		if (binder == null)
+			BINDERS[actionId] = (binder = CONFIG.getDeserializer(type.getMsgClass()));
+
+		DefaultJSONParser parser = new DefaultJSONParser(input, inputLen, CONFIG, JSON.DEFAULT_PARSER_FEATURE);
+		try {
+			Message msg = binder.deserialze(parser, type.getMsgClass(), null);
+			parser.handleResovleTask(msg);
+			return msg;
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * Get the cleared char buffer of the current thread.
+	 *
+	 * @param capacity
+	 * @return
+	 */
+	private static CharBuffer charBuffer(int capacity) {
+		CharBuffer chars = CHARS.get();
+		if (chars.capacity() < capacity) {
+			chars = CharBuffer.allocate(capacity);
+			if (capacity <= MAX_CACHED_CHARS)
+				CHARS.set(chars);
+		}
+		chars.clear();
+		return chars;
+	}
+
+	/**
+	 * Scan the value of the `head.actionId` key(number or numeric string).
+	 *
+	 * @param input
+	 * @param len
+	 * @return actionId, or -1 if not found.
+	 */
+	private static int scanActionId(char[] input, int len) {
+		int i = skipWhitespace(input, len, 0);
+		if (i >= len || input[i] != '{')
+			return -1;
+		i = valueIndex(input, len, i, HEAD_KEY);
+		if (i < 0 || input[i] != '{')
+			return -1;
+		i = valueIndex(input, len, i, ACTION_ID_KEY);
+		if (i < 0)
+			return -1;
+		if (input[i] == '"')
+			++i;
+
+		int value = -1;
+		for (; i < len && input[i] >= '0' && input[i] <= '9'; i++) {
+			value = (value < 0 ? 0 : value * 10) + (input[i] - '0');
+			if (value > 0xFF)
+				return -1;
+		}
+		return value;
+	}
+
+	/**
+	 * Parse the value of the `head.actionId` key by the JSONObject tree.
+	 *
+	 * @param input
+	 * @param len
+	 * @return actionId, or -1 if not found.
+	 */
+	private static int parseActionId(char[] input, int len) {
+		JSONObject head = JSON.parseObject(new String(input, 0, len)).getJSONObject("head");
+		Integer actionId = (head != null) ? head.getInteger("actionId") : null;
+		return (actionId != null && actionId >= 0 && actionId <= 0xFF) ? actionId : -1;
+	}
+
+	/**
+	 * Find the value of the key in the object, only the direct members of
+	 * the object are matched(the string literals and the nested values are
+	 * skipped).
+	 *
+	 * @param input
+	 * @param len
+	 * @param start
+	 *            Index of the '{' of the object
+	 * @param key
+	 *            Unquoted key
+	 * @return Index of the value, or -1 if not found.
+	 */
+	private static int valueIndex(char[] input, int len, int start, char[] key) {
+		int depth = 0;
+		for (int i = start; i < len; i++) {
+			char c = input[i];
+			if (c == '"') {
+				int end = stringEnd(input, len, i);
+				if (end < 0)
+					return -1;
+				if (depth == 1 && regionEquals(input, i + 1, end, key)) {
+					int j = skipWhitespace(input, len, end + 1);
+					if (j < len && input[j] == ':') {
+						j = skipWhitespace(input, len, j + 1);
+						return j < len ? j : -1;
+					}
+				}
+				i = end;
+			} else if (c == '{' || c == '[')
+				++depth;
+			else if ((c == '}' || c == ']') && --depth == 0)
+				return -1; // End of the object.
+		}
+		return -1;
+	}
+
+	/**
+	 * Index of the closing quote of the string literal.
+	 *
+	 * @param input
+	 * @param len
+	 * @param start
+	 *            Index of the opening quote
+	 * @return
+	 */
+	private static int stringEnd(char[] input, int len, int start) {
+		for (int i = start + 1; i < len; i++) {
+			if (input[i] == '\\')
+				++i;
+			else if (input[i] == '"')
+				return i;
+		}
+		return -1;
+	}
+
+	private static boolean regionEquals(char[] input, int from, int to, char[] key) {
+		if (to - from != key.length)
+			return false;
+		for (int j = 0; j < key.length; j++) {
+			if (input[from + j] != key[j])
+				return false;
+		}
+		return true;
+	}
+
+	private static int skipWhitespace(char[] input, int len, int i) {
+		while (i < len && Character.isWhitespace(input[i]))
+			++i;
+		return i;
+	}
+
+}
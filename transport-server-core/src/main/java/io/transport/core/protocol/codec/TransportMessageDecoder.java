@@ -1,18 +1,15 @@
 package io.transport.core.protocol.codec;
 
-import java.util.List;
-
-import javax.annotation.Resource;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Scope;
-import org.springframework.stereotype.Service;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.TooLongFrameException;
 import io.transport.common.utils.exception.TransportException;
 import io.transport.core.config.Configuration.RpcConfig;
 import io.transport.core.exception.TransportDDOSAmbiguousException;
@@ -21,102 +18,108 @@ import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
 
 /**
- * Receiving a message decoder that has processed the DDoS attack stream.
+ * Receiving a message decoder that has processed the DDoS attack stream.<br/>
+ * The frames are split by the `totalLen` field of the head(the length of
+ * the whole frame), oversized frames are rejected before they are buffered,
+ * and a bad frame is dropped alone without discarding the frames behind it.<br/>
+ * Note: It keeps the cumulation of the channel(not sharable), so it is
+ * created directly for each channel(not a Spring prototype bean).
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
  * @time 2016年9月22日
  * @since
  */
-@Service
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // 多例
-public class TransportMessageDecoder extends ByteToMessageDecoder {
+public class TransportMessageDecoder extends LengthFieldBasedFrameDecoder {
 	final private static Logger logger = LoggerFactory.getLogger(TransportMessageDecoder.class);
-	@Resource
-	private RpcConfig conf;
 
-	private State state = State.Head;
-	private int totalLen = 0; // Total message length
-	private short version = (short) 0; // Version number
-	private byte actionId = (byte) 0; // Action type
-	private byte reserve = (byte) 0; // Reserved word
-	private Message msg = null; // Decode message
+	/**
+	 * When the cumulation reaches this size, the following reads are added
+	 * as components instead of being copied into a merged buffer.
+	 */
+	final private static int COMPOSITE_THRESHOLD = 16 * 1024;
+
+	/**
+	 * Merge small cumulations(cheap copy, fast reading), composite large
+	 * ones(no memcpy of the whole cumulation on each read).
+	 */
+	final private static Cumulator CUMULATOR = new Cumulator() {
+		@Override
+		public ByteBuf cumulate(ByteBufAllocator alloc, ByteBuf cumulation, ByteBuf in) {
+			if (cumulation instanceof CompositeByteBuf
+					|| (cumulation.readableBytes() + in.readableBytes()) >= COMPOSITE_THRESHOLD)
+				return COMPOSITE_CUMULATOR.cumulate(alloc, cumulation, in);
+			return MERGE_CUMULATOR.cumulate(alloc, cumulation, in);
+		}
+	};
+
+	final private RpcConfig conf;
+
+	public TransportMessageDecoder(RpcConfig conf) {
+		// Frame length = totalLen(the length field itself is included).
+		super(conf.getMaxContentLength(), 0, 4, -4, 0, true);
+		this.conf = conf;
+		this.setCumulator(CUMULATOR);
+	}
 
 	@Override
-	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+	protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+		ByteBuf frame = null;
 		try {
-			int len = in.readableBytes();
-			if (logger.isDebugEnabled()) {
-				logger.debug("Begin decode, hashCode={}, readableBytes={}, rIndex={}, wIndex={}", in.hashCode(), len,
-						in.readerIndex(), in.writerIndex());
-			}
-
-			switch (this.state) {
-			// 1.0 Message header parsing
-			case Head:
-				if (len < Head.HEAD_LEN)
-					return; // Less than message header length returns.
-
-				this.totalLen = in.readInt(); // Total message length.
-				// DDoS attack check.
-				if (Math.max(len, totalLen) > this.conf.getMaxContentLength()) {
-					// Mandatory settings have been read and all the data of
-					// this package is ignored.
-					this.skipPacketsAll(in);
-
-					throw new TransportDDOSAmbiguousException(
-							"Suspected DDoS attack packets, readableBytes is " + len + ", totalLen=" + totalLen);
-				}
-				this.version = in.readShort(); // version number(100/101...).
-				this.actionId = in.readByte(); // Message action.
-				this.reserve = in.readByte(); // Reserved field.
-
-				// 1.1 Match message.
-				this.msg = this.determineMsgMatching(this.actionId);
-
-				// 1.2 Setting the message head.
-				this.msg.setHead(new Head(totalLen, version, actionId, reserve));
-				this.state = State.Body;
-				if (logger.isDebugEnabled())
-					logger.debug("Begin decode, hashCode={}, readableBytes={}, rIndex={}, wIndex={}, head={}",
-							in.hashCode(), in.readableBytes(), in.readerIndex(), in.writerIndex(), msg.getHead());
-
-			case Body: // 2.1 Message body parsing
-				if (len < (this.totalLen - Head.HEAD_LEN))
-					return;
-
-				this.msg.readByteBufDecoder(in);
-				this.state = State.Completed;
-				if (logger.isDebugEnabled())
-					logger.debug("Begin decode, hashCode={}, readableBytes={}, rIndex={}, wIndex={}", in.hashCode(),
-							in.readableBytes(), in.readerIndex(), in.writerIndex());
-				break;
-			default:
-				throw new IllegalArgumentException("Illegal decoded state. " + state);
-			}
-			out.add(this.msg);
+			frame = (ByteBuf) super.decode(ctx, in);
+		} catch (TooLongFrameException e) {
+			// DDoS attack check(the oversized frame is discarded without
+			// buffering).
+			throw new TransportDDOSAmbiguousException("Suspected DDoS attack packets. " + e.getMessage());
+		}
+		if (frame == null)
+			return null; // Incomplete frame.
+
+		Message msg = null;
+		try {
+			if (frame.readableBytes() < Head.HEAD_LEN)
+				throw new CorruptedFrameException("Frame length less than head length. " + frame.readableBytes());
+
+			int totalLen = frame.readInt(); // Total message length.
+			short version = frame.readShort(); // version number(100/101...).
+			byte actionId = frame.readByte(); // Message action.
+			byte reserve = frame.readByte(); // Reserved field.
+
+			// 1.1 Match message.
+			msg = this.determineMsgMatching(actionId);
+
+			// 1.2 Setting the message head(reuse the message own head).
+			Head head = msg.getHead();
+			head.setTotalLen(totalLen);
+			head.setVersion(version);
+			head.setActionId(actionId);
+			head.setReserve(reserve);
+
+			// 2.1 Message body parsing(the decompressed content is limited
+			// as well as the frame).
+			msg.readByteBufDecoder(frame, this.conf.getMaxContentLength());
+
 			if (logger.isDebugEnabled())
 				logger.debug("解码完成.{}", msg);
-
+			return msg;
 		} catch (Throwable t) {
-			// All packets are ignored when decoding exceptions.
-			this.skipPacketsAll(in);
-			logger.error("decode()解码失败. {}, msg={}", t.getMessage(), this.msg);
-			throw t;
+			// Only the bad frame is ignored, the following frames of the
+			// cumulation continue to be decoded.
+			if (msg != null)
+				msg.release();
+			if (t instanceof TransportDDOSAmbiguousException)
+				throw (TransportDDOSAmbiguousException) t;
+			logger.error("decode()解码失败. {}, channel={}", t.getMessage(), ctx.channel());
+			return null;
 		} finally {
-			// It has been released in
-			// super.io.netty.handler.codec.ByteToMessageDecoder.channelRead().
-			if (this.state == State.Completed) {
-				this.state = State.Head;
-				// Other follow-up processing.
-				// ...
-			}
+			frame.release();
 		}
 	}
 
 	/**
 	 * Determining an instance of the corresponding response message class based
-	 * on actionId
+	 * on actionId(constant-time lookup, pooled message types are taken from
+	 * the recycler)
 	 * 
 	 * @param actionId
 	 * @return
@@ -126,30 +129,8 @@ public class TransportMessageDecoder extends ByteToMessageDecoder {
 	private Message determineMsgMatching(byte actionId) throws Exception {
 		MsgType mt = MsgType.ofType(actionId);
 		if (mt != null)
-			return mt.getMsgClass().newInstance();
+			return mt.newMessage();
 		throw new TransportException("Unknown message type.");
 	}
 
-	/**
-	 * Skip over and ignore all.<br/>
-	 * For example, when a DDoS attack is found, it needs to be called
-	 * 
-	 * @param in
-	 */
-	private void skipPacketsAll(ByteBuf in) {
-		in.readerIndex(in.writerIndex());
-	}
-
-	/**
-	 * Decode state stick state control
-	 * 
-	 * @author Wangl.sir <983708408@qq.com>
-	 * @version v1.0
-	 * @date 2018年1月5日
-	 * @since
-	 */
-	static enum State {
-		Head, Body, Completed;
-	}
-
 }
@@ -2,17 +2,19 @@ package io.transport.core.protocol.codec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.WireFormat;
 
 /**
- * 输出消息编码器
+ * 输出消息编码器(stateless, sharable singleton of all channels, the wire
+ * format is taken from the channel attribute)
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -20,15 +22,50 @@ import io.transport.core.protocol.message.Message;
  * @since
  */
 @Service
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // 多例
+@Sharable
 public class TransportMessageEncoder extends MessageToByteEncoder<Message> {
 	final private static Logger logger = LoggerFactory.getLogger(TransportMessageEncoder.class);
 
+	/**
+	 * Allocate the buffer by the exact encoded length of the message, to
+	 * avoid buffer expansion.
+	 */
+	@Override
+	protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Message msg, boolean preferDirect) throws Exception {
+		int len = msg.encodedLength(WireFormat.of(ctx.channel()));
+		if (len < 0)
+			return super.allocateBuffer(ctx, msg, preferDirect);
+		return preferDirect ? ctx.alloc().ioBuffer(len) : ctx.alloc().heapBuffer(len);
+	}
+
+	/**
+	 * Encode the message into a new buffer in the specified wire format(the
+	 * message is not released), it is used to encode once and write to
+	 * multiple channels.
+	 * 
+	 * @param alloc
+	 * @param msg
+	 * @param format
+	 * @return
+	 */
+	public static ByteBuf encode(ByteBufAllocator alloc, Message msg, WireFormat format) {
+		int len = msg.encodedLength(format);
+		ByteBuf out = len < 0 ? alloc.ioBuffer() : alloc.ioBuffer(len);
+		try {
+			msg.writeBodyBufEncoder(out, format);
+			return out;
+		} catch (RuntimeException e) {
+			out.release();
+			throw e;
+		}
+	}
+
 	@Override
 	protected void encode(ChannelHandlerContext ctx, Message msg, ByteBuf out) throws Exception {
 		try {
-			// 1.1 编码body字节流到ByteBuf
-			msg.writeBodyBufEncoder(out);
+			// 1.1 编码body字节流到ByteBuf(in the wire format negotiated by
+			// the channel)
+			msg.writeBodyBufEncoder(out, WireFormat.of(ctx.channel()));
 			// ctx.writeAndFlush(out);
 			if (logger.isDebugEnabled())
 				logger.debug("编码完成. {}", msg);
@@ -45,6 +82,9 @@ public class TransportMessageEncoder extends MessageToByteEncoder<Message> {
 		} catch (Exception e) {
 			logger.error("编码失败." + msg, e);
 			throw e;
+		} finally {
+			// Encoding is done, release(recycle) the message.
+			msg.release();
 		}
 	}
 
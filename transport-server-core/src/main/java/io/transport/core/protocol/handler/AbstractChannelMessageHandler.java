@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import com.alibaba.fastjson.JSON;
 import com.google.common.collect.Sets;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
@@ -26,8 +27,12 @@ import io.transport.common.cache.JedisService;
 import io.transport.common.utils.exception.TransportException;
 import io.transport.core.config.Configuration;
 import io.transport.core.config.Configuration.DeploymentType;
+import io.transport.core.config.Configuration.RpcConfig;
 import io.transport.core.exception.TransportAuthenticationException;
 import io.transport.core.exception.TransportConnectLimitException;
+import io.transport.core.protocol.message.Head;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.WireFormat;
 import io.transport.core.protocol.message.internal.ConnectMessage;
 import io.transport.core.protocol.message.internal.ConnectRespMessage;
 import io.transport.core.registry.ChannelRegistry;
@@ -37,7 +42,10 @@ import io.transport.core.utils.TransportProcessors;
 import io.transport.mq.MessageService;
 
 /**
- * Basic business abstraction Handler
+ * Basic business abstraction Handler<br/>
+ * The handlers are sharable singletons(they are not created for each
+ * connection), the per-connection state is kept in the channel attribute
+ * {@link Client#KEY}.
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -58,14 +66,23 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 	@Resource(type = DefaultClusterService.class)
 	protected ClusterService clusterService;
 
-	protected Client client;
+	/**
+	 * Get the client of the channel.
+	 * 
+	 * @param channel
+	 * @return null if the channel is not registered.
+	 */
+	protected Client getClient(Channel channel) {
+		return channel.attr(Client.KEY).get();
+	}
 
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-		String clientId = this.client != null ? this.client.getDeviceInfo().getDeviceId() : "";
+		Client client = this.getClient(ctx.channel());
+		String clientId = client != null ? client.getDeviceId() : "";
 		logger.error("连接中断, clientId={}, channel={}", clientId, ctx.channel());
 		// Close client.
-		this.closeClient();
+		this.closeClient(ctx.channel());
 	}
 
 	@Override
@@ -82,17 +99,17 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
 		if (IdleStateEvent.class.isAssignableFrom(evt.getClass())) {
 			IdleStateEvent event = (IdleStateEvent) evt;
-			logger.warn("连接空闲. {}, client={}", event.state(), this.client.asText());
+			logger.warn("连接空闲. {}, client={}", event.state(), this.getClient(ctx.channel()));
 
 			switch (event.state()) {
 			case READER_IDLE: // 读超时事件:可能客户端设备No-run或断线, 为节省资源则close.
-				this.closeClient();
+				this.closeClient(ctx.channel());
 				break;
 			case WRITER_IDLE: // 写超时事件:可能此连接上无业务同时也未收到心跳, 为节省资源则close.
-				this.closeClient();
+				this.closeClient(ctx.channel());
 				break;
 			case ALL_IDLE: // 读&写:异常情况(可能客户端设备No-run或断线), 为节省资源则close.
-				this.closeClient();
+				this.closeClient(ctx.channel());
 				break;
 			default:
 				throw new UnsupportedOperationException("Illegal link detection type." + event.state());
@@ -111,9 +128,9 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 		if (logger.isInfoEnabled())
 			logger.info("新建连接. {}", ctx.channel());
 
-		this.client = new Client((SocketChannel) ctx.channel());
+		ctx.channel().attr(Client.KEY).set(new Client((SocketChannel) ctx.channel()));
 		if (logger.isDebugEnabled())
-			logger.debug("Reserved channel {}", this.client.getChannel());
+			logger.debug("Reserved channel {}", ctx.channel());
 	}
 
 	/**
@@ -140,17 +157,20 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 	 */
 	protected ChannelFuture echoWrite(ChannelHandlerContext ctx, Object msg, boolean afterClose) {
 		ChannelFuture cf = null;
-		// 如果当前连接客户端是浏览器类型(则使用WebSocket包装)
-		if (TransportProcessors.isWSChannel(ctx.channel()))
+		// 如果当前连接客户端是浏览器类型(则使用WebSocket包装, 二进制子协议由编码器处理)
+		if (TransportProcessors.isTextWSChannel(ctx.channel())) {
 			cf = ctx.writeAndFlush(new TextWebSocketFrame(JSON.toJSONString(msg)));
-		else
+			// Serialized, release(recycle) the message.
+			if (msg instanceof Message)
+				((Message) msg).release();
+		} else
 			cf = ctx.writeAndFlush(msg);
 
 		// If close.
 		if (afterClose) {
 			cf.addListener((ChannelFuture f) -> {
 				if (f.isSuccess())
-					this.closeClient(); // 返回消息完成后再关闭通道
+					this.closeClient(ctx.channel()); // 返回消息完成后再关闭通道
 			});
 		}
 		return cf;
@@ -163,12 +183,19 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 	 * @param msg
 	 */
 	protected void processConnect(ChannelHandlerContext ctx, ConnectMessage msg) {
+		// 0.1 Admission control of the CONNECT attempts(before the Redis
+		// processing).
+		AdmissionHandler admission = ctx.channel().attr(AdmissionHandler.KEY).get();
+		if (admission != null && !admission.tryConnect(ctx.channel()))
+			throw new TransportConnectLimitException("Too many connect attempts, please retry later. " + ctx.channel());
+
 		// 1.0 Check device logged in.
-		if (this.client == null)
+		Client client = this.getClient(ctx.channel());
+		if (client == null)
 			throw new TransportException("Illegal channel(client is null).");
 		else {
 			String reqDeviceId = msg.getDeviceInfo().getDeviceId();
-			String deviceId = this.client.getDeviceInfo().getDeviceId();
+			String deviceId = client.getDeviceId();
 			// `deviceId` repeated login control, close the last connection that
 			// has been established.
 			if (!StringUtils.isEmpty(deviceId) || this.registry.localContains(reqDeviceId)) {
@@ -190,15 +217,28 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 		// 2.1 Authentication appId/secret.
 		this.login(ctx, msg);
 
-		this.client.setAppId(msg.getAppId());
-		this.client.setDeviceInfo(msg.getDeviceInfo());
-		this.registry.addRegistry(msg.getAppId(), this.client);
+		client.setAppId(msg.getAppId());
+		client.setDeviceInfo(msg.getDeviceInfo());
+		this.registry.addRegistry(msg.getAppId(), client);
 		if (logger.isInfoEnabled())
-			logger.info("新建客户端. {}, {}", ctx.channel(), this.client.getDeviceInfo().getDeviceId());
+			logger.info("新建客户端. {}, {}", ctx.channel(), client.getDeviceId());
 
 		//
 		// 3.1 Response connect success message.
 		ConnectRespMessage resp = new ConnectRespMessage();
+		// Negotiate the wire format of the subsequent messages(WebSocket text
+		// mode is JSON serialized, not involved).
+		if (!TransportProcessors.isTextWSChannel(ctx.channel())) {
+			RpcConfig rpcConf = this.conf.getRpcConfig();
+			WireFormat format = WireFormat.negotiate(msg.getHead().getVersion(), rpcConf.isCompactEnable(),
+					msg.getHead().hasReserve(Head.RESERVE_COMPRESSED), rpcConf.getCompressThreshold());
+			ctx.channel().attr(WireFormat.KEY).set(format);
+			resp.getHead().setVersion(format.getVersion());
+			if (format.isCompress())
+				resp.getHead().setReserve((byte) (resp.getHead().getReserve() | Head.RESERVE_COMPRESSED));
+			if (logger.isDebugEnabled())
+				logger.debug("Negotiated wire format. {}, {}", format, ctx.channel());
+		}
 		// If the current is ROUTING mode deployment
 		if (this.conf.getDeploymentType() == DeploymentType.ROUTING) {
 			// Get active cluster node info.
@@ -221,15 +261,18 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 
 	/**
 	 * 关闭/注销Client
+	 * 
+	 * @param channel
 	 */
-	protected void closeClient() {
+	protected void closeClient(Channel channel) {
 		try {
-			if (this.client != null) {
+			Client client = this.getClient(channel);
+			if (client != null) {
 				// 1.1 Close client channel.
-				String ctxs = this.client.getChannel().toString();
-				this.client.close();
+				String ctxs = channel.toString();
+				client.close();
 
-				String deviceId = this.client.getDeviceInfo().getDeviceId();
+				String deviceId = client.getDeviceId();
 				if (logger.isInfoEnabled())
 					logger.info("Closed channel '{}', deviceId={}", ctxs, deviceId);
 
@@ -248,9 +291,12 @@ public abstract class AbstractChannelMessageHandler extends ChannelDuplexHandler
 
 	/**
 	 * 校验是否认证.
+	 * 
+	 * @param channel
 	 */
-	protected void authentication() {
-		if (this.client == null || !this.registry.localContains(this.client.getDeviceInfo().getDeviceId()))
+	protected void authentication(Channel channel) {
+		Client client = this.getClient(channel);
+		if (client == null || !this.registry.localContains(client.getDeviceKey()))
 			throw new TransportAuthenticationException("Unauthenticated connection channel.");
 	}
 
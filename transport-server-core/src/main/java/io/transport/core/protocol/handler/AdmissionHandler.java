@@ -0,0 +1,150 @@
+package io.transport.core.protocol.handler;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import io.transport.core.config.Configuration.ServerConfig;
+
+/**
+ * Connection admission control(token bucket rate limiting of the global and
+ * each source IP).<br/>
+ * 1. It is added to the server(parent) channel, the accepted channels
+ * exceeding the rate are closed immediately, before the child handlers are
+ * initialized.<br/>
+ * 2. The CONNECT attempts are limited by {@link #tryConnect(Channel)} before
+ * the authentication(Redis) processing.<br/>
+ * A rate not more than 0 means unlimited.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月22日
+ * @since
+ */
+@Sharable
+public class AdmissionHandler extends ChannelInboundHandlerAdapter {
+	final private static Logger logger = LoggerFactory.getLogger(AdmissionHandler.class);
+
+	/**
+	 * Admission handler of the server that accepted the channel.
+	 */
+	final public static AttributeKey<AdmissionHandler> KEY = AttributeKey.valueOf("transportAdmission");
+
+	/**
+	 * Buckets of the source IPs that are inactive are evicted.
+	 */
+	final private static long IP_EXPIRE_SECONDS = 60L;
+	final private static long IP_MAX_SIZE = 100000L;
+
+	final private RateLimiter acceptLimiter;
+	final private LoadingCache<String, RateLimiter> ipAcceptLimiters;
+	final private RateLimiter connectLimiter;
+	final private LoadingCache<String, RateLimiter> ipConnectLimiters;
+
+	final private AtomicLong rejectedAccepts = new AtomicLong(0);
+	final private AtomicLong rejectedConnects = new AtomicLong(0);
+
+	public AdmissionHandler(ServerConfig conf) {
+		this.acceptLimiter = newLimiter(conf.getAcceptRate());
+		this.ipAcceptLimiters = newIpLimiters(conf.getAcceptIpRate());
+		this.connectLimiter = newLimiter(conf.getConnectRate());
+		this.ipConnectLimiters = newIpLimiters(conf.getConnectIpRate());
+	}
+
+	/**
+	 * Whether any limit is configured.
+	 * 
+	 * @param conf
+	 * @return
+	 */
+	public static boolean isEnabled(ServerConfig conf) {
+		return conf.getAcceptRate() > 0 || conf.getAcceptIpRate() > 0 || conf.getConnectRate() > 0
+				|| conf.getConnectIpRate() > 0;
+	}
+
+	/**
+	 * The accepted child channel is read by the server channel.
+	 */
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		if (msg instanceof Channel) {
+			Channel child = (Channel) msg;
+			if (!this.tryAcquire(this.acceptLimiter, this.ipAcceptLimiters, child)) {
+				this.rejectedAccepts.incrementAndGet();
+				if (logger.isDebugEnabled())
+					logger.debug("Rejected accept, rate limit exceeded. {}", child.remoteAddress());
+				child.unsafe().closeForcibly();
+				return;
+			}
+		}
+		ctx.fireChannelRead(msg);
+	}
+
+	/**
+	 * Acquire the permit of the CONNECT attempt.
+	 * 
+	 * @param channel
+	 * @return false if the rate is exceeded.
+	 */
+	public boolean tryConnect(Channel channel) {
+		if (this.tryAcquire(this.connectLimiter, this.ipConnectLimiters, channel))
+			return true;
+		this.rejectedConnects.incrementAndGet();
+		return false;
+	}
+
+	public long getRejectedAccepts() {
+		return rejectedAccepts.get();
+	}
+
+	public long getRejectedConnects() {
+		return rejectedConnects.get();
+	}
+
+	private boolean tryAcquire(RateLimiter global, LoadingCache<String, RateLimiter> ips, Channel channel) {
+		// Source IP first, a single IP must not exhaust the global permits.
+		if (ips != null) {
+			String ip = sourceIp(channel.remoteAddress());
+			if (ip != null && !ips.getUnchecked(ip).tryAcquire())
+				return false;
+		}
+		return global == null || global.tryAcquire();
+	}
+
+	private static String sourceIp(SocketAddress addr) {
+		if (addr instanceof InetSocketAddress && ((InetSocketAddress) addr).getAddress() != null)
+			return ((InetSocketAddress) addr).getAddress().getHostAddress();
+		return null;
+	}
+
+	private static RateLimiter newLimiter(double permitsPerSecond) {
+		return permitsPerSecond > 0 ? RateLimiter.create(permitsPerSecond) : null;
+	}
+
+	private static LoadingCache<String, RateLimiter> newIpLimiters(final double permitsPerSecond) {
+		if (permitsPerSecond <= 0)
+			return null;
+		return CacheBuilder.newBuilder().expireAfterAccess(IP_EXPIRE_SECONDS, TimeUnit.SECONDS)
+				.maximumSize(IP_MAX_SIZE).build(new CacheLoader<String, RateLimiter>() {
+					@Override
+					public RateLimiter load(String ip) throws Exception {
+						return RateLimiter.create(permitsPerSecond);
+					}
+				});
+	}
+
+}
@@ -1,26 +1,30 @@
 package io.transport.core.protocol.handler;
 
 import javax.annotation.Resource;
+import javax.net.ssl.SSLException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.transport.common.SpringContextHolder;
+import io.transport.core.EventLoopTopology;
+import io.transport.core.NettyChannelServerListener;
 import io.transport.core.config.Configuration;
 import io.transport.core.config.Configuration.RpcConfig;
 import io.transport.core.protocol.codec.TransportMessageDecoder;
 import io.transport.core.protocol.codec.TransportMessageEncoder;
+import io.transport.core.protocol.handler.ssl.ServerSslContextProvider;
+import io.transport.core.protocol.handler.ssl.SslHandshakeMetricsHandler;
 
 /**
  * 客户端SDK-Server Handler初始器
@@ -37,8 +41,41 @@ public class ChildHandlerInitializer extends ChannelInitializer<SocketChannel> {
 	final private static Logger logger = LoggerFactory.getLogger(ChildHandlerInitializer.class);
 	@Resource
 	private Configuration config;
+	/**
+	 * Sharable handlers of all channels.
+	 */
 	@Resource
-	private BeanFactory beanFactory;
+	private TransportMessageEncoder encoder;
+	@Resource
+	private TransportMessageHandler transportMessageHandler;
+	volatile private ServerSslContextProvider sslProvider;
+	volatile private EventExecutorGroup businessGroup;
+	volatile private boolean businessResolved = false;
+
+	/**
+	 * Business executor group(resolved once, the topology is built before
+	 * the servers are started), null means the IO loop.
+	 * 
+	 * @return
+	 */
+	private EventExecutorGroup businessGroup() {
+		if (!this.businessResolved) {
+			EventLoopTopology topology = SpringContextHolder.getBean(NettyChannelServerListener.class).getTopology();
+			this.businessGroup = topology != null ? topology.getBusiness() : null;
+			this.businessResolved = true;
+		}
+		return this.businessGroup;
+	}
+
+	private ServerSslContextProvider getSslProvider() throws SSLException {
+		if (this.sslProvider == null) {
+			synchronized (this) {
+				if (this.sslProvider == null)
+					this.sslProvider = new ServerSslContextProvider(this.config.getRpcConfig());
+			}
+		}
+		return this.sslProvider;
+	}
 
 	@Override
 	protected void initChannel(SocketChannel ch) throws Exception {
@@ -48,19 +85,37 @@ public class ChildHandlerInitializer extends ChannelInitializer<SocketChannel> {
 
 		// pipeline管理channel中的Handler，在channel队列中添加一个handler来处理业务
 		ChannelPipeline p = ch.pipeline();
+		// Configure SSL.
+		if (conf.getSslEnable()) {
+			p.addLast("ssl-metrics", new SslHandshakeMetricsHandler());
+			p.addLast("ssl", this.getSslProvider().newHandler(ch.alloc()));
+		}
 		if (conf.getLoggingEnable()) {
 			p.addLast(new LoggingHandler(LogLevel.valueOf(conf.getLoggingLevel())));
 			if (logger.isInfoEnabled())
 				logger.info("Netty internal log has been used. (Rpc)level={}", conf.getLoggingLevel());
 		}
 
-		IdleStateHandler idleHandler = new IdleStateHandler(conf.getReadIdleSeconds(), conf.getWriteIdleSeconds(),
-				conf.getAllIdleSeconds());
-		p.addLast(idleHandler);
-		// ### 必须每次 getBean(..), 不能用 @Autowired
-		p.addLast("decoder", this.beanFactory.getBean(TransportMessageDecoder.class));
-		p.addLast("encoder", this.beanFactory.getBean(TransportMessageEncoder.class));
-		p.addLast("transport", (ChannelHandler) this.beanFactory.getBean("transportMessageHandler"));
+		// Merge the flushes of the channel(reduce the write syscalls).
+		if (conf.getFlushMaxPending() > 1)
+			p.addLast("flush-consolidation",
+					new FlushConsolidationHandler(conf.getFlushMaxPending(), conf.getFlushLatencyMicros()));
+
+		// Idle detection(one sweep task for each event loop, instead of the
+		// scheduled tasks of each channel).
+		p.addLast("liveness", new LivenessHandler(conf.getReadIdleSeconds(), conf.getWriteIdleSeconds(),
+				conf.getAllIdleSeconds()));
+		// The decoder keeps the cumulation of the channel, the others are
+		// sharable(no bean creation on the accept path).
+		p.addLast("decoder", new TransportMessageDecoder(conf));
+		p.addLast("encoder", this.encoder);
+		// Bounded outbound queue when the channel is not writable(backpressure).
+		if (conf.getOutboundQueueSize() > 0)
+			p.addLast("outbound-queue",
+					new OutboundQueueHandler(conf.getOutboundQueueSize(), conf.getOutboundOverflowPolicy()));
+		// The business handler runs on the business executor(out of the IO
+		// loop), the channel is bound to one executor to keep the ordering.
+		p.addLast(this.businessGroup(), "transport", this.transportMessageHandler);
 	}
 
 }
@@ -0,0 +1,140 @@
+package io.transport.core.protocol.handler;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.Future;
+
+/**
+ * Flush consolidation handler, the flushes of the channel are merged to
+ * reduce the write syscalls.<br/>
+ * 1. During reading, the flushes are deferred until channelReadComplete().<br/>
+ * 2. Otherwise(e.g. pushes, or the replies of the business executor), the
+ * flushes are deferred to the next event loop iteration, or the latency
+ * bound if it is configured.<br/>
+ * 3. When the pending flushes reach the max, flush immediately.<br/>
+ * Note: It must be added in front of the handlers that may flush(closer to
+ * the head of the pipeline), and is not sharable.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月17日
+ * @since
+ */
+public class FlushConsolidationHandler extends ChannelDuplexHandler {
+
+	final private int maxPendingFlushes;
+	final private long latencyMicros;
+	final private Runnable flushTask;
+
+	private ChannelHandlerContext ctx;
+	private int pendingFlushes;
+	private boolean readInProgress;
+	private Future<?> nextScheduledFlush;
+
+	/**
+	 * @param maxPendingFlushes
+	 *            The max number of pending flushes, flush immediately when it
+	 *            is reached.
+	 * @param latencyMicros
+	 *            The max delay of the flushes out of reading, 0 means the
+	 *            next event loop iteration.
+	 */
+	public FlushConsolidationHandler(int maxPendingFlushes, long latencyMicros) {
+		this.maxPendingFlushes = Math.max(1, maxPendingFlushes);
+		this.latencyMicros = Math.max(0, latencyMicros);
+		this.flushTask = () -> {
+			this.nextScheduledFlush = null;
+			if (this.pendingFlushes > 0 && !this.readInProgress)
+				this.flushNow(this.ctx);
+		};
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+	}
+
+	@Override
+	public void flush(ChannelHandlerContext ctx) throws Exception {
+		if (++this.pendingFlushes >= this.maxPendingFlushes)
+			this.flushNow(ctx);
+		// Flushed in channelReadComplete().
+		else if (!this.readInProgress)
+			this.scheduleFlush(ctx);
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		this.readInProgress = true;
+		ctx.fireChannelRead(msg);
+	}
+
+	@Override
+	public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+		this.readInProgress = false;
+		this.flushIfNeeded(ctx);
+		ctx.fireChannelReadComplete();
+	}
+
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+		// Make the pending data to be written as soon as possible.
+		if (!ctx.channel().isWritable())
+			this.flushIfNeeded(ctx);
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+		this.readInProgress = false;
+		this.flushIfNeeded(ctx);
+		ctx.fireExceptionCaught(cause);
+	}
+
+	@Override
+	public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+		this.readInProgress = false;
+		this.flushIfNeeded(ctx);
+		ctx.disconnect(promise);
+	}
+
+	@Override
+	public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+		this.readInProgress = false;
+		this.flushIfNeeded(ctx);
+		ctx.close(promise);
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.flushIfNeeded(ctx);
+	}
+
+	private void flushIfNeeded(ChannelHandlerContext ctx) {
+		if (this.pendingFlushes > 0)
+			this.flushNow(ctx);
+	}
+
+	private void flushNow(ChannelHandlerContext ctx) {
+		if (this.nextScheduledFlush != null) {
+			this.nextScheduledFlush.cancel(false);
+			this.nextScheduledFlush = null;
+		}
+		this.pendingFlushes = 0;
+		ctx.flush();
+	}
+
+	private void scheduleFlush(ChannelHandlerContext ctx) {
+		if (this.nextScheduledFlush == null) {
+			if (this.latencyMicros > 0)
+				this.nextScheduledFlush = ctx.executor().schedule(this.flushTask, this.latencyMicros,
+						TimeUnit.MICROSECONDS);
+			else
+				this.nextScheduledFlush = ctx.executor().submit(this.flushTask);
+		}
+	}
+
+}
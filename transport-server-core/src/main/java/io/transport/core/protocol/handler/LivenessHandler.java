@@ -0,0 +1,197 @@
+package io.transport.core.protocol.handler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * Connection liveness detection, instead of {@link io.netty.handler.timeout.IdleStateHandler}.<br/>
+ * Only the last read/write timestamps are kept for each connection, the
+ * connections of an event loop are checked by one periodic sweep task of
+ * the loop(no scheduled futures for each connection), and the
+ * {@link IdleStateEvent}s are fired to the following handlers(see
+ * {@link AbstractChannelMessageHandler#userEventTriggered(ChannelHandlerContext, Object)}).<br/>
+ * Note: The idle events are accurate to the sweep interval(1 second).
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月21日
+ * @since
+ */
+public class LivenessHandler extends ChannelDuplexHandler {
+
+	final private static long SWEEP_INTERVAL_MS = 1000L;
+
+	/**
+	 * Tracker of each event loop(the tracked handlers are only accessed by
+	 * the loop), it is removed and its sweep task is cancelled when no
+	 * connection is tracked.
+	 */
+	final private static Map<EventExecutor, LoopTracker> TRACKERS = new ConcurrentHashMap<>();
+
+	final private long readerIdleNanos;
+	final private long writerIdleNanos;
+	final private long allIdleNanos;
+
+	private ChannelHandlerContext ctx;
+	private LoopTracker tracker;
+	private long lastReadTime;
+	private long lastWriteTime;
+	/**
+	 * Idle states that have been fired(reset by the activity).
+	 */
+	private boolean readerIdleFired;
+	private boolean writerIdleFired;
+	private boolean allIdleFired;
+
+	/**
+	 * @param readerIdleSeconds
+	 * @param writerIdleSeconds
+	 * @param allIdleSeconds
+	 *            Not more than 0 means that the state is disabled.
+	 */
+	public LivenessHandler(int readerIdleSeconds, int writerIdleSeconds, int allIdleSeconds) {
+		this.readerIdleNanos = TimeUnit.SECONDS.toNanos(Math.max(0, readerIdleSeconds));
+		this.writerIdleNanos = TimeUnit.SECONDS.toNanos(Math.max(0, writerIdleSeconds));
+		this.allIdleNanos = TimeUnit.SECONDS.toNanos(Math.max(0, allIdleSeconds));
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+		if (ctx.channel().isActive() && ctx.channel().isRegistered())
+			this.track();
+	}
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) throws Exception {
+		this.track();
+		ctx.fireChannelActive();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		this.untrack();
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.untrack();
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		this.lastReadTime = System.nanoTime();
+		this.readerIdleFired = this.allIdleFired = false;
+		ctx.fireChannelRead(msg);
+	}
+
+	@Override
+	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+		this.lastWriteTime = System.nanoTime();
+		this.writerIdleFired = this.allIdleFired = false;
+		ctx.write(msg, promise);
+	}
+
+	private void track() {
+		if (this.tracker != null)
+			return;
+		this.lastReadTime = this.lastWriteTime = System.nanoTime();
+		this.tracker = TRACKERS.computeIfAbsent(this.ctx.executor(), LoopTracker::new);
+		this.tracker.add(this);
+	}
+
+	private void untrack() {
+		if (this.tracker != null) {
+			this.tracker.remove(this);
+			this.tracker = null;
+		}
+	}
+
+	/**
+	 * Check the idle state.
+	 * 
+	 * @param now
+	 * @return the idle event to be fired, or null.
+	 */
+	private IdleStateEvent check(long now) {
+		if (this.readerIdleNanos > 0 && !this.readerIdleFired && (now - this.lastReadTime) >= this.readerIdleNanos) {
+			this.readerIdleFired = true;
+			return IdleStateEvent.FIRST_READER_IDLE_STATE_EVENT;
+		}
+		if (this.writerIdleNanos > 0 && !this.writerIdleFired && (now - this.lastWriteTime) >= this.writerIdleNanos) {
+			this.writerIdleFired = true;
+			return IdleStateEvent.FIRST_WRITER_IDLE_STATE_EVENT;
+		}
+		if (this.allIdleNanos > 0 && !this.allIdleFired
+				&& (now - Math.max(this.lastReadTime, this.lastWriteTime)) >= this.allIdleNanos) {
+			this.allIdleFired = true;
+			return IdleStateEvent.FIRST_ALL_IDLE_STATE_EVENT;
+		}
+		return null;
+	}
+
+	/**
+	 * The tracked connections of an event loop, and the sweep task.
+	 */
+	final private static class LoopTracker implements Runnable {
+		final private Set<LivenessHandler> handlers = new HashSet<>();
+		final private EventExecutor executor;
+		final private ScheduledFuture<?> sweepFuture;
+
+		private LoopTracker(EventExecutor executor) {
+			this.executor = executor;
+			this.sweepFuture = executor.scheduleAtFixedRate(this, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS,
+					TimeUnit.MILLISECONDS);
+		}
+
+		private void add(LivenessHandler handler) {
+			this.handlers.add(handler);
+		}
+
+		private void remove(LivenessHandler handler) {
+			// The last connection of the loop, stop sweeping(a new tracker is
+			// created by the next connection).
+			if (this.handlers.remove(handler) && this.handlers.isEmpty()) {
+				this.sweepFuture.cancel(false);
+				TRACKERS.remove(this.executor, this);
+			}
+		}
+
+		@Override
+		public void run() {
+			long now = System.nanoTime();
+			List<LivenessHandler> idles = null;
+			List<IdleStateEvent> events = null;
+			for (LivenessHandler handler : this.handlers) {
+				IdleStateEvent evt = handler.check(now);
+				if (evt != null) {
+					if (idles == null) {
+						idles = new ArrayList<>();
+						events = new ArrayList<>();
+					}
+					idles.add(handler);
+					events.add(evt);
+				}
+			}
+			// Fire out of the iteration(the handlers may close the channel).
+			if (idles != null) {
+				for (int i = 0; i < idles.size(); i++)
+					idles.get(i).ctx.fireUserEventTriggered(events.get(i));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+package io.transport.core.protocol.handler;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import io.transport.common.utils.exception.TransportException;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.internal.ActiveRespMessage;
+import io.transport.core.protocol.message.internal.ResultRespMessage;
+
+/**
+ * Writability-aware bounded outbound queue of the channel.<br/>
+ * When the channel is not writable(the outbound buffer exceeds the high
+ * water mark), the writes are queued instead of growing the direct memory,
+ * and they are written again when the channel becomes writable. If the
+ * queue is full, the overflow policy is applied.<br/>
+ * Note: It must be added behind the encoders(so the messages are queued
+ * before encoding), and is not sharable.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月18日
+ * @since
+ */
+public class OutboundQueueHandler extends ChannelDuplexHandler {
+	final private static Logger logger = LoggerFactory.getLogger(OutboundQueueHandler.class);
+
+	/**
+	 * Default classifier of the collapse policy, only the idempotent
+	 * responses are collapsible(the pushes and acks are never collapsed).
+	 */
+	final public static Function<Object, Object> DEFAULT_CLASSIFIER = msg -> {
+		if (msg instanceof ActiveRespMessage || msg instanceof ResultRespMessage)
+			return msg.getClass();
+		return null;
+	};
+
+	//
+	// Metrics of all channels.
+	//
+
+	final private static AtomicLong DROPS = new AtomicLong(0);
+	final private static AtomicLong STALLS = new AtomicLong(0);
+	final private static AtomicLong DISCONNECTS = new AtomicLong(0);
+
+	final private int maxSize;
+	final private OverflowPolicy policy;
+	final private Function<Object, Object> classifier;
+	final private ArrayDeque<PendingWrite> queue = new ArrayDeque<>();
+
+	public OutboundQueueHandler(int maxSize, OverflowPolicy policy) {
+		this(maxSize, policy, DEFAULT_CLASSIFIER);
+	}
+
+	public OutboundQueueHandler(int maxSize, OverflowPolicy policy, Function<Object, Object> classifier) {
+		this.maxSize = Math.max(1, maxSize);
+		this.policy = policy;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+		if (this.queue.isEmpty() && ctx.channel().isWritable()) {
+			ctx.write(msg, promise);
+			return;
+		}
+		if (this.queue.size() >= this.maxSize && !this.overflow(ctx, msg, promise))
+			return;
+		this.queue.add(new PendingWrite(msg, promise));
+	}
+
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+		if (ctx.channel().isWritable()) {
+			// Drain the queued writes while writable.
+			boolean written = false;
+			while (!this.queue.isEmpty() && ctx.channel().isWritable()) {
+				PendingWrite pw = this.queue.poll();
+				ctx.write(pw.msg, pw.promise);
+				written = true;
+			}
+			if (written)
+				ctx.flush();
+		} else
+			STALLS.incrementAndGet();
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		this.releaseAll();
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.releaseAll();
+	}
+
+	/**
+	 * Apply the overflow policy.
+	 * 
+	 * @param ctx
+	 * @param msg
+	 * @param promise
+	 * @return Whether the new message is still to be queued.
+	 */
+	private boolean overflow(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+		switch (this.policy) {
+		case DROP_NEWEST:
+			this.drop(msg, promise);
+			return false;
+		case COLLAPSE:
+			// Replace the queued message of the same classifier.
+			Object key = this.classifier.apply(msg);
+			if (key != null) {
+				for (Iterator<PendingWrite> it = this.queue.iterator(); it.hasNext();) {
+					PendingWrite pw = it.next();
+					if (key.equals(this.classifier.apply(pw.msg))) {
+						it.remove();
+						this.drop(pw.msg, pw.promise);
+						return true;
+					}
+				}
+			}
+			// Otherwise, it is the same as DROP_OLDEST.
+		case DROP_OLDEST:
+			PendingWrite oldest = this.queue.poll();
+			this.drop(oldest.msg, oldest.promise);
+			return true;
+		case DISCONNECT:
+			this.drop(msg, promise);
+			DISCONNECTS.incrementAndGet();
+			logger.warn("Outbound queue overflow, disconnect the slow client. {}", ctx.channel());
+			ctx.close();
+			return false;
+		default:
+			throw new IllegalStateException("Illegal overflow policy. " + this.policy);
+		}
+	}
+
+	private void drop(Object msg, ChannelPromise promise) {
+		DROPS.incrementAndGet();
+		this.release(msg, promise, "Outbound queue overflow, the message was dropped.");
+	}
+
+	private void releaseAll() {
+		PendingWrite pw;
+		while ((pw = this.queue.poll()) != null)
+			this.release(pw.msg, pw.promise, "Channel closed, the queued message was discarded.");
+	}
+
+	private void release(Object msg, ChannelPromise promise, String cause) {
+		if (msg instanceof Message)
+			((Message) msg).release();
+		else
+			ReferenceCountUtil.safeRelease(msg);
+		promise.tryFailure(new TransportException(cause));
+	}
+
+	public static long getDrops() {
+		return DROPS.get();
+	}
+
+	public static long getStalls() {
+		return STALLS.get();
+	}
+
+	public static long getDisconnects() {
+		return DISCONNECTS.get();
+	}
+
+	/**
+	 * Queued write.
+	 */
+	final private static class PendingWrite {
+		final private Object msg;
+		final private ChannelPromise promise;
+
+		private PendingWrite(Object msg, ChannelPromise promise) {
+			this.msg = msg;
+			this.promise = promise;
+		}
+	}
+
+	/**
+	 * Policy when the outbound queue is full.
+	 * 
+	 * @author Wangl.sir <983708408@qq.com>
+	 * @version v1.0
+	 * @date 2018年5月18日
+	 * @since
+	 */
+	public static enum OverflowPolicy {
+
+		/**
+		 * Drop the oldest queued message.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Drop the new message.
+		 */
+		DROP_NEWEST,
+		/**
+		 * Replace the queued message of the same classifier, otherwise drop
+		 * the oldest.
+		 */
+		COLLAPSE,
+		/**
+		 * Drop the new message and close the channel.
+		 */
+		DISCONNECT;
+
+	}
+
+}
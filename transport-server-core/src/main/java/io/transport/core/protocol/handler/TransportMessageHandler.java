@@ -1,16 +1,16 @@
 package io.transport.core.protocol.handler;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
 import com.alibaba.fastjson.JSON;
 
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.transport.core.exception.TransportAuthenticationException;
 import io.transport.common.utils.exception.TransportException;
 import io.transport.core.protocol.message.DeviceInfo;
+import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
 import io.transport.core.protocol.message.internal.ActiveMessage;
 import io.transport.core.protocol.message.internal.ActiveRespMessage;
@@ -21,11 +21,12 @@ import io.transport.core.protocol.message.internal.DeviceRegistRespMessage;
 import io.transport.core.protocol.message.internal.ResultRespMessage;
 import io.transport.core.protocol.message.internal.TransportMessage;
 import io.transport.core.protocol.message.internal.TransportAckRespMessage;
+import io.transport.core.protocol.message.internal.TransportBatchMessage;
 import io.transport.core.protocol.message.internal.ResultRespMessage.RetCode;
 import io.transport.core.utils.ByteBufUtils;
 
 /**
- * Data transfer Handler.
+ * Data transfer Handler(sharable singleton of all RPC channels).
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -33,7 +34,7 @@ import io.transport.core.utils.ByteBufUtils;
  * @since
  */
 @Service
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+@Sharable
 public class TransportMessageHandler extends AbstractChannelMessageHandler {
 
 	@Override
@@ -64,7 +65,11 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 					logger.error("处理失败.", t);
 				}
 				// Echo write.
-				super.echoWrite(ctx, new ResultRespMessage(retCode, type, err), afterClose);
+				super.echoWrite(ctx, ResultRespMessage.newInstance(retCode, type, err), afterClose);
+			} finally {
+				// Release the message(the pooled message is recycled).
+				if (msg instanceof Message)
+					((Message) msg).release();
 			}
 		}
 	}
@@ -88,13 +93,13 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 		}
 
 		// 1.2 连接认证检查
-		super.authentication();
+		super.authentication(ctx.channel());
 
 		// 1.3 连接关闭
 		if (msg instanceof ClosingMessage) {
 			if (logger.isDebugEnabled())
 				logger.debug("On close. msg={}", msg);
-			super.closeClient(); // Close处理
+			super.closeClient(ctx.channel()); // Close处理
 			return;
 		}
 		// 1.4 链路检测
@@ -102,7 +107,7 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 			if (logger.isDebugEnabled())
 				logger.debug("On Active. msg={}", msg);
 			// Reply client link detection.
-			super.echoWrite(ctx, new ActiveRespMessage());
+			super.echoWrite(ctx, ActiveRespMessage.newInstance());
 			return;
 		}
 		// 1.5 注册前端设备
@@ -120,6 +125,13 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 			this.processTransport(ctx, (TransportMessage) msg); // 接收客户端发送消息处理
 			return;
 		}
+		// 1.6.1 批量消息传送
+		else if (msg instanceof TransportBatchMessage) {
+			if (logger.isDebugEnabled())
+				logger.debug("On transport batch. msg={}", msg);
+			this.processTransportBatch(ctx, (TransportBatchMessage) msg);
+			return;
+		}
 		// 1.7 推送消息结果返回
 		else if (msg instanceof TransportAckRespMessage) {
 			if (logger.isDebugEnabled())
@@ -129,7 +141,7 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 		}
 
 		// 2.1 非法连接client close.
-		super.closeClient();
+		super.closeClient(ctx.channel());
 		logger.warn("未知类型的消息.{}", JSON.toJSONString(msg));
 		return;
 	}
@@ -156,12 +168,12 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 			logger.info("新注册认证设备: msg={}", JSON.toJSONString(msg));
 
 		// 1.3 Echo客户端
-		DeviceRegistRespMessage resp = new DeviceRegistRespMessage();
-		// Echo write.
-		super.echoWrite(ctx, resp);
-
+		DeviceRegistRespMessage resp = DeviceRegistRespMessage.newInstance();
 		if (logger.isDebugEnabled())
 			logger.debug("Echo message. {}", resp);
+
+		// Echo write.
+		super.echoWrite(ctx, resp);
 	}
 
 	/**
@@ -177,6 +189,22 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 			logger.info("Publish message. {}", msg);
 	}
 
+	/**
+	 * 批量传送处理(the batch is published and acknowledged as a whole)
+	 * 
+	 * @param ctx
+	 * @param msg
+	 */
+	private void processTransportBatch(ChannelHandlerContext ctx, TransportBatchMessage msg) {
+		if (msg.getMessages().isEmpty())
+			throw new TransportException("Protocol error, batch messages is empty.");
+
+		// 1.1 Send to MQ broker.
+		this.messageService.publish(msg);
+		if (logger.isInfoEnabled())
+			logger.info("Publish batch message. count={}", msg.getMessages().size());
+	}
+
 	/**
 	 * 推送消息，客户端返回接收结果
 	 * 
@@ -190,7 +218,7 @@ public class TransportMessageHandler extends AbstractChannelMessageHandler {
 			logger.info("Publish ackMessage. {}", JSON.toJSONString(ack));
 
 		// 1.2 Echo write.
-		super.echoWrite(ctx, new ResultRespMessage(RetCode.OK, MsgType.TRANSPORT_RESP.name(), null));
+		super.echoWrite(ctx, ResultRespMessage.newInstance(RetCode.OK, MsgType.TRANSPORT_RESP.name(), null));
 	}
 
 }
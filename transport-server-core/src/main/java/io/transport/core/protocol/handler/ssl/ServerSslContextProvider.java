@@ -0,0 +1,227 @@
+package io.transport.core.protocol.handler.ssl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.SSLException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.Resources;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.transport.core.config.Configuration.ServerConfig;
+import io.transport.core.config.Configuration.SslProviderType;
+
+/**
+ * Server TLS context provider of the listener(RPC/WebSocket).<br/>
+ * 1. OpenSSL(netty-tcnative) is used if it is available, otherwise JDK
+ * SSL.<br/>
+ * 2. Session resumption: the session cache(session id), and the session
+ * tickets(OpenSSL only, the ticket key file can be shared by all nodes, so
+ * the reconnecting clients can resume on any node).<br/>
+ * 3. ALPN(OpenSSL only).<br/>
+ * 4. Certificate hot reload: the certificate/key files are checked every
+ * reload interval(when the connections are accepted), and a new context is
+ * built if they are modified, the established connections are not
+ * affected.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月24日
+ * @since
+ */
+public class ServerSslContextProvider {
+	final private static Logger logger = LoggerFactory.getLogger(ServerSslContextProvider.class);
+
+	/**
+	 * Ticket key length: name(16) + hmac key(16) + aes key(16).
+	 */
+	final private static int TICKET_KEY_LEN = 48;
+
+	final private ServerConfig conf;
+	final private SslProvider provider;
+	final private AtomicBoolean reloading = new AtomicBoolean(false);
+	/**
+	 * Random ticket key of the process(if the key file is not configured).
+	 */
+	private byte[] randomTicketKey;
+	volatile private SslContext context;
+	volatile private long nextCheckTime;
+	private long lastModified;
+
+	public ServerSslContextProvider(ServerConfig conf) throws SSLException {
+		this.conf = conf;
+		this.provider = this.provider(conf.getSslProvider());
+		this.context = this.build();
+		this.lastModified = this.lastModified();
+		this.nextCheckTime = System.currentTimeMillis()
+				+ TimeUnit.SECONDS.toMillis(Math.max(0, conf.getSslReloadIntervalSeconds()));
+
+		if (logger.isInfoEnabled())
+			logger.info("Initialized ssl context({}). provider={}, sessionCacheSize={}, sessionTimeout={}, alpn={}",
+					conf.getName(), this.provider, conf.getSslSessionCacheSize(), conf.getSslSessionTimeout(),
+					conf.getSslAlpnProtocols());
+	}
+
+	/**
+	 * New SSL handler of the accepted channel(the modified certificate is
+	 * reloaded if necessary).
+	 * 
+	 * @param alloc
+	 * @return
+	 */
+	public SslHandler newHandler(ByteBufAllocator alloc) {
+		this.reloadIfNecessary();
+		return this.context.newHandler(alloc);
+	}
+
+	public SslContext getContext() {
+		return context;
+	}
+
+	public SslProvider getProvider() {
+		return provider;
+	}
+
+	private void reloadIfNecessary() {
+		int interval = this.conf.getSslReloadIntervalSeconds();
+		long now = System.currentTimeMillis();
+		if (interval <= 0 || now < this.nextCheckTime || !this.reloading.compareAndSet(false, true))
+			return;
+
+		try {
+			this.nextCheckTime = now + TimeUnit.SECONDS.toMillis(interval);
+			long modified = this.lastModified();
+			if (modified != this.lastModified) {
+				this.context = this.build();
+				this.lastModified = modified;
+				if (logger.isInfoEnabled())
+					logger.info("Reloaded the modified certificate({}).", this.conf.getName());
+			}
+		} catch (Throwable t) {
+			// Retry at the next interval.
+			logger.error("Reload certificate failed, the current certificate is still used(" + this.conf.getName()
+					+ ").", t);
+		} finally {
+			this.reloading.set(false);
+		}
+	}
+
+	private SslContext build() throws SSLException {
+		SslContextBuilder builder = SslContextBuilder
+				.forServer(this.resolve(this.conf.getKeyCertChainFile()), this.resolve(this.conf.getKeyFile()))
+				.sslProvider(this.provider);
+		// Session cache(session id resumption).
+		if (this.conf.getSslSessionCacheSize() > 0)
+			builder.sessionCacheSize(this.conf.getSslSessionCacheSize());
+		if (this.conf.getSslSessionTimeout() > 0)
+			builder.sessionTimeout(this.conf.getSslSessionTimeout());
+
+		// ALPN.
+		String[] protocols = this.alpnProtocols();
+		if (protocols.length > 0) {
+			if (this.provider == SslProvider.OPENSSL)
+				builder.applicationProtocolConfig(new ApplicationProtocolConfig(Protocol.ALPN,
+						SelectorFailureBehavior.NO_ADVERTISE, SelectedListenerFailureBehavior.ACCEPT, protocols));
+			else
+				logger.warn("ALPN is only supported by OpenSSL, ignored({}).", this.conf.getName());
+		}
+		SslContext context = builder.build();
+
+		// Session tickets(OpenSSL only).
+		if (context.sessionContext() instanceof OpenSslSessionContext)
+			((OpenSslSessionContext) context.sessionContext()).setTicketKeys(this.ticketKey());
+
+		return context;
+	}
+
+	private SslProvider provider(SslProviderType type) {
+		if (type == SslProviderType.JDK)
+			return SslProvider.JDK;
+		if (OpenSsl.isAvailable())
+			return SslProvider.OPENSSL;
+		if (type == SslProviderType.OPENSSL)
+			logger.warn("OpenSSL is unavailable, fallback to JDK SSL({}). cause: {}", this.conf.getName(),
+					OpenSsl.unavailabilityCause());
+		return SslProvider.JDK;
+	}
+
+	private String[] alpnProtocols() {
+		List<String> protocols = new ArrayList<>();
+		for (String p : StringUtils.split(StringUtils.trimToEmpty(this.conf.getSslAlpnProtocols()), ',')) {
+			if (!StringUtils.isBlank(p))
+				protocols.add(p.trim());
+		}
+		return protocols.toArray(new String[protocols.size()]);
+	}
+
+	private OpenSslSessionTicketKey ticketKey() throws SSLException {
+		byte[] key;
+		if (!StringUtils.isBlank(this.conf.getSslTicketKeyFile())) {
+			try {
+				key = Files.readAllBytes(this.resolve(this.conf.getSslTicketKeyFile()).toPath());
+			} catch (IOException e) {
+				throw new SSLException("Read ticket key file failed. " + this.conf.getSslTicketKeyFile(), e);
+			}
+			if (key.length < TICKET_KEY_LEN)
+				throw new SSLException("Illegal ticket key file, at least " + TICKET_KEY_LEN + " bytes. "
+						+ this.conf.getSslTicketKeyFile());
+		} else {
+			if (this.randomTicketKey == null) {
+				this.randomTicketKey = new byte[TICKET_KEY_LEN];
+				new SecureRandom().nextBytes(this.randomTicketKey);
+			}
+			key = this.randomTicketKey;
+		}
+		return new OpenSslSessionTicketKey(Arrays.copyOfRange(key, 0, 16), Arrays.copyOfRange(key, 16, 32),
+				Arrays.copyOfRange(key, 32, 48));
+	}
+
+	/**
+	 * The last modified time of the certificate/key files.
+	 * 
+	 * @return
+	 */
+	private long lastModified() {
+		long modified = this.resolve(this.conf.getKeyCertChainFile()).lastModified();
+		modified = 31 * modified + this.resolve(this.conf.getKeyFile()).lastModified();
+		if (!StringUtils.isBlank(this.conf.getSslTicketKeyFile()))
+			modified = 31 * modified + this.resolve(this.conf.getSslTicketKeyFile()).lastModified();
+		return modified;
+	}
+
+	/**
+	 * The file path, or the classpath resource.
+	 * 
+	 * @param path
+	 * @return
+	 */
+	private File resolve(String path) {
+		File file = new File(path);
+		if (file.exists())
+			return file;
+		return new File(Resources.getResource(path).getFile());
+	}
+
+}
@@ -0,0 +1,144 @@
+package io.transport.core.protocol.handler.ssl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+
+/**
+ * TLS handshake metrics of the channel(latency, CPU time of the IO thread,
+ * full/resumed handshakes and failures).<br/>
+ * The CPU time is measured around the inbound processing of the
+ * {@link SslHandler} until the handshake is completed(the delegated tasks
+ * are executed by the IO thread), and then the handler is removed.<br/>
+ * Note: It must be added in front of the {@link SslHandler}, and is not
+ * sharable.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月24日
+ * @since
+ */
+public class SslHandshakeMetricsHandler extends ChannelInboundHandlerAdapter {
+	final private static Logger logger = LoggerFactory.getLogger(SslHandshakeMetricsHandler.class);
+
+	final private static ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	final private static boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+	//
+	// Metrics of all channels.
+	//
+
+	final private static AtomicLong HANDSHAKES = new AtomicLong(0);
+	final private static AtomicLong RESUMED = new AtomicLong(0);
+	final private static AtomicLong FAILURES = new AtomicLong(0);
+	final private static AtomicLong LATENCY_NANOS = new AtomicLong(0);
+	final private static AtomicLong CPU_NANOS = new AtomicLong(0);
+
+	private long startNanos;
+	private long startMillis;
+	private long cpuNanos;
+	private boolean completed;
+
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) throws Exception {
+		this.startNanos = System.nanoTime();
+		this.startMillis = System.currentTimeMillis();
+		SslHandler ssl = ctx.pipeline().get(SslHandler.class);
+		if (ssl != null)
+			ssl.handshakeFuture().addListener((Future<Channel> f) -> this.complete(ctx, ssl, f));
+		else
+			this.completed = true;
+		ctx.fireChannelActive();
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		if (this.completed || !CPU_TIME_SUPPORTED) {
+			ctx.fireChannelRead(msg);
+			return;
+		}
+		long begin = THREADS.getCurrentThreadCpuTime();
+		try {
+			ctx.fireChannelRead(msg);
+		} finally {
+			this.cpuNanos += THREADS.getCurrentThreadCpuTime() - begin;
+		}
+	}
+
+	private void complete(ChannelHandlerContext ctx, SslHandler ssl, Future<Channel> f) {
+		if (this.completed)
+			return;
+		this.completed = true;
+
+		if (f.isSuccess()) {
+			long latency = System.nanoTime() - this.startNanos;
+			HANDSHAKES.incrementAndGet();
+			LATENCY_NANOS.addAndGet(latency);
+			CPU_NANOS.addAndGet(this.cpuNanos);
+			// The resumed session was created by the previous handshake.
+			SSLSession session = ssl.engine().getSession();
+			boolean resumed = session != null && session.getCreationTime() < this.startMillis;
+			if (resumed)
+				RESUMED.incrementAndGet();
+			if (logger.isDebugEnabled())
+				logger.debug("Handshake completed, resumed={}, latency={}us, cpu={}us. {}", resumed,
+						TimeUnit.NANOSECONDS.toMicros(latency), TimeUnit.NANOSECONDS.toMicros(this.cpuNanos),
+						ctx.channel());
+		} else
+			FAILURES.incrementAndGet();
+
+		// No longer needed.
+		if (ctx.pipeline().context(this) != null)
+			ctx.pipeline().remove(this);
+	}
+
+	/**
+	 * The number of the successful handshakes(full and resumed).
+	 * 
+	 * @return
+	 */
+	public static long getHandshakes() {
+		return HANDSHAKES.get();
+	}
+
+	public static long getResumed() {
+		return RESUMED.get();
+	}
+
+	public static long getFailures() {
+		return FAILURES.get();
+	}
+
+	/**
+	 * Average handshake latency(microseconds).
+	 * 
+	 * @return
+	 */
+	public static long getAvgLatencyMicros() {
+		long n = HANDSHAKES.get();
+		return n > 0 ? TimeUnit.NANOSECONDS.toMicros(LATENCY_NANOS.get() / n) : 0;
+	}
+
+	/**
+	 * Average CPU time of the IO thread for each handshake(microseconds).
+	 * 
+	 * @return
+	 */
+	public static long getAvgCpuMicros() {
+		long n = HANDSHAKES.get();
+		return n > 0 ? TimeUnit.NANOSECONDS.toMicros(CPU_NANOS.get() / n) : 0;
+	}
+
+}
@@ -0,0 +1,84 @@
+package io.transport.core.protocol.handler.ws;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.AttributeKey;
+
+/**
+ * 二进制WebSocket帧编解码<br/>
+ * With the binary subprotocol, the WebSocket frames carry the same frames as
+ * the RPC codec({@link io.transport.core.protocol.codec.TransportMessageEncoder}/
+ * {@link io.transport.core.protocol.codec.TransportMessageDecoder}), so that
+ * the JSON serialization of the text mode is avoided.<br/>
+ * The fragments(continuation frames) of a binary message are forwarded as
+ * well, the message decoder works on the byte stream.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月14日
+ * @since
+ */
+@Sharable
+public class BinaryWSFrameCodec extends MessageToMessageCodec<WebSocketFrame, ByteBuf> {
+	/**
+	 * WebSocket subprotocol of the binary mode(Sec-WebSocket-Protocol).
+	 */
+	final public static String SUBPROTOCOL = "transport-binary";
+	/**
+	 * The channel has selected the binary subprotocol.
+	 */
+	final public static AttributeKey<Boolean> BINARY_KEY = AttributeKey.valueOf("transportBinaryWS");
+	/**
+	 * A fragmented binary message is in progress.
+	 */
+	final private static AttributeKey<Boolean> FRAGMENTED_KEY = AttributeKey.valueOf("transportBinaryWSFragmented");
+
+	final public static BinaryWSFrameCodec INSTANCE = new BinaryWSFrameCodec();
+
+	@Override
+	public boolean acceptInboundMessage(Object msg) throws Exception {
+		// The text frames(and their continuations) pass through to the text
+		// handler.
+		return msg instanceof BinaryWebSocketFrame || msg instanceof ContinuationWebSocketFrame;
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) throws Exception {
+		if (frame instanceof ContinuationWebSocketFrame) {
+			if (!Boolean.TRUE.equals(ctx.channel().attr(FRAGMENTED_KEY).get())) {
+				// Continuation of a text message.
+				out.add(frame.retain());
+				return;
+			}
+		}
+		ctx.channel().attr(FRAGMENTED_KEY).set(frame.isFinalFragment() ? null : Boolean.TRUE);
+
+		// The frame is released after decoding, so retain the content for
+		// the message decoder.
+		out.add(frame.content().retain());
+	}
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) throws Exception {
+		out.add(new BinaryWebSocketFrame(buf.retain()));
+	}
+
+	/**
+	 * Check the binary WebSocket channel.
+	 * 
+	 * @param channel
+	 * @return
+	 */
+	public static boolean isBinary(Channel channel) {
+		return channel != null && Boolean.TRUE.equals(channel.attr(BINARY_KEY).get());
+	}
+
+}
@@ -4,12 +4,14 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.websocketx.*;
+import io.netty.util.AttributeKey;
 import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 
@@ -20,23 +22,19 @@ import io.transport.common.Constants;
 import io.transport.common.utils.StringUtils;
 import io.transport.core.config.Configuration;
 import io.transport.core.config.Configuration.WSConfig;
+import io.transport.core.protocol.codec.JSONFrameBinder;
 import io.transport.core.protocol.handler.TransportMessageHandler;
 import io.transport.core.protocol.message.Message;
-import io.transport.core.protocol.message.MsgType;
-import io.transport.core.utils.ByteBufUtils;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-
 /**
  * 文本WebSocket推送处理程序 <br/>
  * https://www.cnblogs.com/carl10086/p/6188808.html<br/>
- * https://my.oschina.net/tangcoffee/blog/340246
+ * https://my.oschina.net/tangcoffee/blog/340246<br/>
+ * Sharable singleton of all WebSocket channels, the handshaker of the
+ * channel is kept in the channel attribute.
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -44,12 +42,14 @@ import com.alibaba.fastjson.JSONObject;
  * @since
  */
 @Component
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // 多实例
+@Sharable
 public class TextWSFrameHandler extends TransportMessageHandler {
 
+	final private static AttributeKey<WebSocketServerHandshaker> HANDSHAKER_KEY = AttributeKey
+			.valueOf("transportWSHandshaker");
+
 	@Autowired
 	private Configuration config;
-	private WebSocketServerHandshaker handshaker;
 
 	@Override
 	public void channelReadComplete(ChannelHandlerContext ctx) {
@@ -66,6 +66,9 @@ public class TextWSFrameHandler extends TransportMessageHandler {
 			// 处理WebSocket请求
 			else if (msg instanceof WebSocketFrame)
 				this.dispatchWebSocketFrame(ctx, (WebSocketFrame) msg);
+			// 二进制子协议(已由编解码器解码)
+			else if (msg instanceof Message)
+				super.dispatch(ctx, msg);
 			else {
 				logger.warn("未知的WS消息类型.{}, msg={}", ctx.channel().remoteAddress(), msg);
 				ctx.channel().close();
@@ -98,12 +101,14 @@ public class TextWSFrameHandler extends TransportMessageHandler {
 		WSConfig conf = this.config.getWsConfig();
 		String wspath = (conf.getSslEnable() ? "wss:/" : "ws:/") + hostAndPort + conf.getWebsocketPath();
 		WebSocketServerHandshakerFactory wsFactory = new WebSocketServerHandshakerFactory(wspath, null,
-				conf.getAllowExtensions());
-		this.handshaker = wsFactory.newHandshaker(req);
-		if (this.handshaker == null)
+				conf.getAllowExtensions() || conf.isCompressionEnable());
+		WebSocketServerHandshaker handshaker = wsFactory.newHandshaker(req);
+		if (handshaker == null)
 			WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(ctx.channel());
-		else
-			this.handshaker.handshake(ctx.channel(), req); // 返回握手response
+		else {
+			ctx.channel().attr(HANDSHAKER_KEY).set(handshaker);
+			handshaker.handshake(ctx.channel(), req); // 返回握手response
+		}
 	}
 
 	/**
@@ -137,7 +142,11 @@ public class TextWSFrameHandler extends TransportMessageHandler {
 	private void dispatchWebSocketFrame(ChannelHandlerContext ctx, WebSocketFrame frame) {
 		// 判断是否是关闭链路的指令
 		if (frame instanceof CloseWebSocketFrame) {
-			this.handshaker.close(ctx.channel(), (CloseWebSocketFrame) frame);
+			WebSocketServerHandshaker handshaker = ctx.channel().attr(HANDSHAKER_KEY).get();
+			if (handshaker != null)
+				handshaker.close(ctx.channel(), (CloseWebSocketFrame) frame);
+			else
+				ctx.channel().close();
 			return;
 		}
 		// 判断是否是Ping消息
@@ -154,11 +163,13 @@ public class TextWSFrameHandler extends TransportMessageHandler {
 
 		// 处理业务消息
 		if (frame instanceof TextWebSocketFrame) {
-			String msg = ((TextWebSocketFrame) frame).text();
+			ByteBuf content = frame.content();
 			if (logger.isDebugEnabled())
-				logger.debug(String.format("WS(%s) request payload=%s", ctx.channel(), msg));
-			// 心跳报文
-			if (msg == null || StringUtils.eqIgnCase(msg, Constants.H_PING))
+				logger.debug(String.format("WS(%s) request payload=%s", ctx.channel(),
+						content.toString(CharsetUtil.UTF_8)));
+			// 心跳报文(只在长度一致时才转为字符串比较)
+			if (!content.isReadable() || (content.readableBytes() == Constants.H_PING.length()
+					&& StringUtils.eqIgnCase(content.toString(CharsetUtil.UTF_8), Constants.H_PING)))
 				return;
 		}
 
@@ -174,19 +185,12 @@ public class TextWSFrameHandler extends TransportMessageHandler {
 	 * @throws Exception
 	 */
 	private void processBizFrameMessage(ChannelHandlerContext ctx, WebSocketFrame frame) {
-		ByteBuf in = frame.content();
-		JSONObject content = JSON.parseObject(ByteBufUtils.readString(in, in.readableBytes()));
-		if (content != null) {
-			String actionId = String.valueOf(content.getJSONObject("head").getOrDefault("actionId", 0));
-			Class<? extends Message> msgClazz = MsgType.ofType(Byte.parseByte(actionId)).getMsgClass();
-			if (msgClazz == null) {
-				logger.warn("Unknown WebSocket(actionId) type message.{}", content);
-				return;
-			}
-			Message payload = JSON.toJavaObject(content, msgClazz);
+		// 单次解析: 直接从帧内容绑定到消息类型(无中间字符串与JSONObject)
+		Message payload = JSONFrameBinder.bind(frame.content());
+		if (payload != null)
 			super.dispatch(ctx, payload);
-		} else
-			logger.warn("WebSocket request is null.");
+		else
+			logger.warn("WebSocket request is null or unknown(actionId) type message. {}", ctx.channel());
 	}
 
 }
\ No newline at end of file
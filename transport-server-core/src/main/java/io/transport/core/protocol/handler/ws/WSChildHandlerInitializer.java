@@ -15,8 +15,6 @@
  */
 package io.transport.core.protocol.handler.ws;
 
-import java.io.File;
-
 import javax.net.ssl.SSLException;
 
 import org.slf4j.Logger;
@@ -27,24 +25,28 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import com.google.common.io.Resources;
-
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.SslProvider;
 import io.netty.handler.stream.ChunkedWriteHandler;
-import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
 import io.transport.common.SpringContextHolder;
+import io.transport.core.EventLoopTopology;
+import io.transport.core.NettyChannelServerListener;
 import io.transport.core.config.Configuration;
 import io.transport.core.config.Configuration.WSConfig;
+import io.transport.core.protocol.codec.TransportMessageEncoder;
+import io.transport.core.protocol.handler.FlushConsolidationHandler;
+import io.transport.core.protocol.handler.LivenessHandler;
+import io.transport.core.protocol.handler.OutboundQueueHandler;
+import io.transport.core.protocol.handler.ssl.ServerSslContextProvider;
+import io.transport.core.protocol.handler.ssl.SslHandshakeMetricsHandler;
 
 /**
  * A HTTP server which serves Web Socket requests at:
@@ -81,7 +83,16 @@ public class WSChildHandlerInitializer extends ChannelInitializer<SocketChannel>
 
 	@Autowired
 	private Configuration config;
-	private SslContext sslContext;
+	/**
+	 * Sharable handlers of all channels.
+	 */
+	@Autowired
+	private TransportMessageEncoder encoder;
+	@Autowired
+	private TextWSFrameHandler textWSFrameHandler;
+	volatile private ServerSslContextProvider sslProvider;
+	volatile private EventExecutorGroup businessGroup;
+	volatile private boolean businessResolved = false;
 
 	@Override
 	public void initChannel(SocketChannel ch) throws Exception {
@@ -92,9 +103,10 @@ public class WSChildHandlerInitializer extends ChannelInitializer<SocketChannel>
 		ChannelPipeline p = ch.pipeline();
 		// Configure SSL.
 		if (conf.getSslEnable()) {
-			p.addLast(getSslContext().newHandler(ch.alloc()));
+			p.addLast("ssl-metrics", new SslHandshakeMetricsHandler());
+			p.addLast("ssl", this.getSslProvider().newHandler(ch.alloc()));
 			if (logger.isDebugEnabled())
-				logger.debug("The ssl(wss) handler has been enabled. sslCtx={}", getSslContext().toString());
+				logger.debug("The ssl(wss) handler has been enabled. provider={}", this.getSslProvider().getProvider());
 		}
 
 		// pipeline管理channel中的Handler，在channel队列中添加一个handler来处理业务
@@ -104,30 +116,62 @@ public class WSChildHandlerInitializer extends ChannelInitializer<SocketChannel>
 				logger.info("Netty internal log has been used. (WS)level={}", conf.getLoggingLevel());
 		}
 
-		IdleStateHandler idleHandler = new IdleStateHandler(conf.getReadIdleSeconds(), conf.getWriteIdleSeconds(),
-				conf.getAllIdleSeconds());
-		p.addLast(idleHandler);
+		// Merge the flushes of the channel(reduce the write syscalls).
+		if (conf.getFlushMaxPending() > 1)
+			p.addLast("flush-consolidation",
+					new FlushConsolidationHandler(conf.getFlushMaxPending(), conf.getFlushLatencyMicros()));
+
+		// Idle detection(one sweep task for each event loop, instead of the
+		// scheduled tasks of each channel).
+		p.addLast("liveness", new LivenessHandler(conf.getReadIdleSeconds(), conf.getWriteIdleSeconds(),
+				conf.getAllIdleSeconds()));
 		p.addLast("http-codec", new HttpServerCodec()); // 将请求和应答消息解码为HTTP消息
 		p.addLast("aggregator", new HttpObjectAggregator(65536)); // 将HTTP消息的多个部分合成一条完整的HTTP消息
 		p.addLast("http-chunked", new ChunkedWriteHandler()); // 向客户端发送HTML5文件
-		p.addLast("ws-protocol", new WebSocketServerProtocolHandler(conf.getWebsocketPath(), null, true));
-		p.addLast("text-handler", SpringContextHolder.getBean("textWSFrameHandler"));
+		// permessage-deflate compression, the extension encoder/decoder are
+		// added between the two handlers after the handshake.
+		if (conf.isCompressionEnable()) {
+			p.addLast("ws-compression", new WebSocketServerExtensionHandler(new WSDeflateExtensionHandshaker(conf)));
+			p.addLast("ws-compression-threshold", new WSCompressionThresholdHandler(conf));
+		}
+		// Binary subprotocol, the same frames as the RPC codec are carried.
+		if (conf.getBinaryEnable())
+			p.addLast("ws-subprotocol", new WSSubprotocolHandler("ws-protocol", this.config.getRpcConfig(), this.encoder));
+		p.addLast("ws-protocol", new WebSocketServerProtocolHandler(conf.getWebsocketPath(),
+				conf.getBinaryEnable() ? BinaryWSFrameCodec.SUBPROTOCOL : null, true));
+		// Bounded outbound queue when the channel is not writable(backpressure),
+		// the codecs of the binary subprotocol are added in front of it.
+		if (conf.getOutboundQueueSize() > 0)
+			p.addLast("outbound-queue",
+					new OutboundQueueHandler(conf.getOutboundQueueSize(), conf.getOutboundOverflowPolicy()));
+		// The business handler runs on the business executor(out of the IO
+		// loop), the channel is bound to one executor to keep the ordering.
+		p.addLast(this.businessGroup(), "text-handler", this.textWSFrameHandler);
+	}
+
+	/**
+	 * Business executor group(resolved once, the topology is built before
+	 * the servers are started), null means the IO loop.
+	 * 
+	 * @return
+	 */
+	private EventExecutorGroup businessGroup() {
+		if (!this.businessResolved) {
+			EventLoopTopology topology = SpringContextHolder.getBean(NettyChannelServerListener.class).getTopology();
+			this.businessGroup = topology != null ? topology.getBusiness() : null;
+			this.businessResolved = true;
+		}
+		return this.businessGroup;
 	}
 
-	private SslContext getSslContext() throws SSLException {
-		if (this.sslContext == null) {
-			WSConfig conf = this.config.getWsConfig();
-			/*
-			 * SelfSignedCertificate ssc = new SelfSignedCertificate();
-			 * SslContext sslCtx =
-			 * SslContextBuilder.forServer(ssc.certificate(),
-			 * ssc.privateKey()).build();
-			 */
-			File keyCertChainFile = new File(Resources.getResource(conf.getKeyCertChainFile()).getFile());
-			File keyFile = new File(Resources.getResource(conf.getKeyFile()).getFile());
-			this.sslContext = SslContextBuilder.forServer(keyCertChainFile, keyFile).sslProvider(SslProvider.OPENSSL).build();
+	private ServerSslContextProvider getSslProvider() throws SSLException {
+		if (this.sslProvider == null) {
+			synchronized (this) {
+				if (this.sslProvider == null)
+					this.sslProvider = new ServerSslContextProvider(this.config.getWsConfig());
+			}
 		}
-		return this.sslContext;
+		return this.sslProvider;
 	}
 
 }
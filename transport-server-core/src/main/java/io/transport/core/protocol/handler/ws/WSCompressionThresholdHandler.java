@@ -0,0 +1,152 @@
+package io.transport.core.protocol.handler.ws;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionEncoder;
+import io.transport.core.config.Configuration.WSConfig;
+
+/**
+ * Compression threshold and memory accounting of the permessage-deflate
+ * connections.<br/>
+ * 1. The small frames(less than the min size) are written bypassing the
+ * deflate encoder(sent uncompressed, RSV1=0), the compression of them
+ * costs more CPU than the saved bytes.<br/>
+ * 2. The connections that negotiated the compression are counted, and the
+ * compression memory of them is estimated(zlib: deflater 2^(windowBits+2) +
+ * 2^(memLevel+9), inflater 2^windowBits, the context takeover off means no
+ * persistent memory).<br/>
+ * Note: It must be added behind the {@link io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler}
+ * (the extension encoder is added between them after the handshake), and
+ * is not sharable.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月25日
+ * @since
+ */
+public class WSCompressionThresholdHandler extends ChannelDuplexHandler {
+
+	final private static int MEM_LEVEL = 8;
+
+	//
+	// Metrics of all channels.
+	//
+
+	final private static AtomicLong CONNECTIONS = new AtomicLong(0);
+	final private static AtomicLong MEMORY = new AtomicLong(0);
+	final private static AtomicLong UNCOMPRESSED = new AtomicLong(0);
+
+	final private int minSize;
+	/**
+	 * Estimated compression memory of the connection(bytes).
+	 */
+	final private long memory;
+
+	/**
+	 * Context of the extension encoder(null if the compression is not
+	 * negotiated).
+	 */
+	private ChannelHandlerContext encoderCtx;
+	private boolean resolved;
+	private boolean accounted;
+
+	public WSCompressionThresholdHandler(WSConfig conf) {
+		this.minSize = Math.max(0, conf.getCompressionMinSize());
+		long deflater = conf.isCompressionServerNoContext() ? 0
+				: (1L << (WSDeflateExtensionHandshaker.windowBits(conf.getCompressionServerWindowBits()) + 2))
+						+ (1L << (MEM_LEVEL + 9));
+		// The client window bits may not be negotiated(upper bound).
+		long inflater = 1L << WSDeflateExtensionHandshaker.MAX_WINDOW_BITS;
+		this.memory = deflater + inflater;
+	}
+
+	@Override
+	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+		if (msg instanceof WebSocketFrame) {
+			// The frames are only written after the handshake, the extension
+			// encoder(if negotiated) has been added.
+			if (!this.resolved)
+				this.resolve(ctx);
+
+			WebSocketFrame frame = (WebSocketFrame) msg;
+			if (this.encoderCtx != null && frame.content().readableBytes() < this.minSize && frame.isFinalFragment()
+					&& (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame)) {
+				// Skip the encoder(a whole uncompressed message).
+				UNCOMPRESSED.incrementAndGet();
+				this.encoderCtx.write(msg, promise);
+				return;
+			}
+		}
+		ctx.write(msg, promise);
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		this.release();
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		this.release();
+	}
+
+	private void resolve(ChannelHandlerContext ctx) {
+		this.resolved = true;
+		for (Map.Entry<String, ChannelHandler> ent : ctx.pipeline()) {
+			if (ent.getValue() instanceof WebSocketExtensionEncoder) {
+				this.encoderCtx = ctx.pipeline().context(ent.getValue());
+				break;
+			}
+		}
+		if (this.encoderCtx != null && ctx.channel().isActive()) {
+			this.accounted = true;
+			CONNECTIONS.incrementAndGet();
+			MEMORY.addAndGet(this.memory);
+		}
+	}
+
+	private void release() {
+		if (this.accounted) {
+			this.accounted = false;
+			CONNECTIONS.decrementAndGet();
+			MEMORY.addAndGet(-this.memory);
+		}
+	}
+
+	/**
+	 * The number of the connections that negotiated the compression.
+	 * 
+	 * @return
+	 */
+	public static long getConnections() {
+		return CONNECTIONS.get();
+	}
+
+	/**
+	 * Estimated compression memory of all connections(bytes).
+	 * 
+	 * @return
+	 */
+	public static long getMemory() {
+		return MEMORY.get();
+	}
+
+	/**
+	 * The number of the frames sent uncompressed(less than the min size).
+	 * 
+	 * @return
+	 */
+	public static long getUncompressed() {
+		return UNCOMPRESSED.get();
+	}
+
+}
@@ -0,0 +1,80 @@
+package io.transport.core.protocol.handler.ws;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.transport.core.config.Configuration.WSConfig;
+
+/**
+ * permessage-deflate(RFC7692) extension handshaker.<br/>
+ * The negotiation is delegated to
+ * {@link PerMessageDeflateServerExtensionHandshaker}, the configured server
+ * context takeover and window bits are applied even if the client does not
+ * offer them(they are included in the response, see RFC7692 7.1.1.1 and
+ * 7.1.2.1), so the deflater memory of each connection is bounded by the
+ * server.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月25日
+ * @since
+ */
+public class WSDeflateExtensionHandshaker implements WebSocketServerExtensionHandshaker {
+
+	final public static String PERMESSAGE_DEFLATE = "permessage-deflate";
+	final private static String SERVER_NO_CONTEXT = "server_no_context_takeover";
+	final private static String SERVER_MAX_WINDOW = "server_max_window_bits";
+
+	final public static int MIN_WINDOW_BITS = 9;
+	final public static int MAX_WINDOW_BITS = 15;
+
+	final private boolean serverNoContext;
+	final private int serverWindowBits;
+	final private PerMessageDeflateServerExtensionHandshaker delegate;
+
+	public WSDeflateExtensionHandshaker(WSConfig conf) {
+		this.serverNoContext = conf.isCompressionServerNoContext();
+		this.serverWindowBits = windowBits(conf.getCompressionServerWindowBits());
+		this.delegate = new PerMessageDeflateServerExtensionHandshaker(
+				Math.min(9, Math.max(1, conf.getCompressionLevel())), true,
+				windowBits(conf.getCompressionClientWindowBits()), true, conf.isCompressionClientNoContext());
+	}
+
+	@Override
+	public WebSocketServerExtension handshakeExtension(WebSocketExtensionData extensionData) {
+		if (!PERMESSAGE_DEFLATE.equals(extensionData.name()))
+			return null;
+
+		Map<String, String> params = new HashMap<>(extensionData.parameters());
+		if (this.serverNoContext)
+			params.put(SERVER_NO_CONTEXT, null);
+		if (this.serverWindowBits < MAX_WINDOW_BITS) {
+			int bits = this.serverWindowBits;
+			String offered = params.get(SERVER_MAX_WINDOW);
+			if (offered != null) {
+				try {
+					bits = Math.min(bits, Integer.parseInt(offered.trim()));
+				} catch (NumberFormatException e) {
+					return null; // Decline the illegal offer.
+				}
+			}
+			params.put(SERVER_MAX_WINDOW, String.valueOf(bits));
+		}
+		return this.delegate.handshakeExtension(new WebSocketExtensionData(extensionData.name(), params));
+	}
+
+	/**
+	 * Valid window bits(9-15).
+	 * 
+	 * @param bits
+	 * @return
+	 */
+	public static int windowBits(int bits) {
+		return Math.min(MAX_WINDOW_BITS, Math.max(MIN_WINDOW_BITS, bits));
+	}
+
+}
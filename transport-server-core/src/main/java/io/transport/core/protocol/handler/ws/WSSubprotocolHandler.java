@@ -0,0 +1,85 @@
+package io.transport.core.protocol.handler.ws;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.transport.core.config.Configuration.RpcConfig;
+import io.transport.core.protocol.codec.TransportMessageDecoder;
+import io.transport.core.protocol.codec.TransportMessageEncoder;
+
+/**
+ * WebSocket子协议选择<br/>
+ * Check the `Sec-WebSocket-Protocol` of the handshake request, if the binary
+ * subprotocol is requested, the binary codec is added to the pipeline,
+ * otherwise it is the text(JSON) mode. It is removed after the handshake
+ * request.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月14日
+ * @since
+ */
+public class WSSubprotocolHandler extends ChannelInboundHandlerAdapter {
+	final private static Logger logger = LoggerFactory.getLogger(WSSubprotocolHandler.class);
+
+	/**
+	 * Name of the WebSocket protocol handler, the binary codec is added after
+	 * it.
+	 */
+	private String protocolHandlerName;
+	/**
+	 * Configuration of the binary decoder(the same frames as the RPC codec).
+	 */
+	private RpcConfig decoderConf;
+	/**
+	 * Sharable encoder.
+	 */
+	private TransportMessageEncoder encoder;
+
+	public WSSubprotocolHandler(String protocolHandlerName, RpcConfig decoderConf, TransportMessageEncoder encoder) {
+		this.protocolHandlerName = protocolHandlerName;
+		this.decoderConf = decoderConf;
+		this.encoder = encoder;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+		if (msg instanceof FullHttpRequest) {
+			String protocols = ((FullHttpRequest) msg).headers().get(HttpHeaderNames.SEC_WEBSOCKET_PROTOCOL);
+			if (isBinaryRequested(protocols)) {
+				ctx.channel().attr(BinaryWSFrameCodec.BINARY_KEY).set(true);
+				ChannelPipeline p = ctx.pipeline();
+				p.addAfter(this.protocolHandlerName, "binary-codec", BinaryWSFrameCodec.INSTANCE);
+				p.addAfter("binary-codec", "decoder", new TransportMessageDecoder(this.decoderConf));
+				p.addAfter("decoder", "encoder", this.encoder);
+				if (logger.isDebugEnabled())
+					logger.debug("Selected binary WebSocket subprotocol. {}", ctx.channel());
+			}
+			ctx.pipeline().remove(this);
+		}
+		ctx.fireChannelRead(msg);
+	}
+
+	/**
+	 * Check whether the binary subprotocol is requested.
+	 * 
+	 * @param protocols
+	 *            Comma separated subprotocols
+	 * @return
+	 */
+	private static boolean isBinaryRequested(String protocols) {
+		if (protocols != null) {
+			for (String protocol : protocols.split(",")) {
+				if (BinaryWSFrameCodec.SUBPROTOCOL.equals(protocol.trim()))
+					return true;
+			}
+		}
+		return false;
+	}
+
+}
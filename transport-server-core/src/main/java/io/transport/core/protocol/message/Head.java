@@ -16,6 +16,12 @@ public class Head implements Serializable {
 	 * 协议头长度(bytes)
 	 */
 	final public static int HEAD_LEN = 4 + 2 + 1 + 1;
+	/**
+	 * Reserve flag, the payload is compressed(deflate).<br/>
+	 * On CONNECT/CONNECT_RESP, it means that compression is supported(by the
+	 * client)/enabled(by the server).
+	 */
+	final public static byte RESERVE_COMPRESSED = 0x01;
 
 	private int totalLen; // 消息总长度(含消息头及消息体)
 	private short version = Version.Version_1_0_0.getVersion(); // 版本号
@@ -71,6 +77,25 @@ public class Head implements Serializable {
 		this.reserve = reserve;
 	}
 
+	/**
+	 * Whether the reserve flag is set.
+	 * 
+	 * @param flag
+	 * @return
+	 */
+	public boolean hasReserve(byte flag) {
+		return (this.reserve & flag) != 0;
+	}
+
+	/**
+	 * Reset to default(except actionId), used for recycling messages.
+	 */
+	public void reset() {
+		this.totalLen = 0;
+		this.version = Version.Version_1_0_0.getVersion();
+		this.reserve = 0;
+	}
+
 	@Override
 	public String toString() {
 		return "Head [totalLen=" + totalLen + ", version=" + version + ", actionId=" + actionId + ", reserve=" + reserve
@@ -87,7 +112,13 @@ public class Head implements Serializable {
 	 */
 	public static enum Version {
 
-		Version_1_0_0((short) 100);
+		Version_1_0_0((short) 100),
+
+		/**
+		 * Compact wire format, the fixed-length fields are replaced by
+		 * variable-length fields.
+		 */
+		Version_2_0_0((short) 200);
 
 		private short version;
 
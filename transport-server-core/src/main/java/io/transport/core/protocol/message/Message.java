@@ -1,11 +1,11 @@
 package io.transport.core.protocol.message;
 
 import java.io.Serializable;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.function.Supplier;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
+import io.netty.util.Recycler.Handle;
 
 /**
  * 基础抽象消息
@@ -17,9 +17,37 @@ import io.netty.buffer.ByteBuf;
  */
 public abstract class Message implements Serializable {
 	final private static long serialVersionUID = -799664737197392144L;
-	final protected Logger logger = LoggerFactory.getLogger(getClass());
 
 	private Head head = new Head();
+	/**
+	 * Recycler handle, not null if it is a pooled instance.
+	 */
+	private transient Handle<Message> recyclerHandle;
+
+	public Message() {
+		super();
+	}
+
+	/**
+	 * New recycler of the pooled message type, the pooled instances are
+	 * created by the factory(e.g. the default constructor) and recycled by
+	 * {@link #release()}, the message only needs to override
+	 * {@link #reset()} if it holds fields.
+	 * 
+	 * @param factory
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T extends Message> Recycler<T> newRecycler(final Supplier<T> factory) {
+		return new Recycler<T>() {
+			@Override
+			protected T newObject(Handle<T> handle) {
+				T msg = factory.get();
+				((Message) msg).recyclerHandle = (Handle<Message>) (Handle<?>) handle;
+				return msg;
+			}
+		};
+	}
 
 	public Head getHead() {
 		return head;
@@ -41,6 +69,41 @@ public abstract class Message implements Serializable {
 	 */
 	public abstract void readByteBufDecoder(ByteBuf in);
 
+	/**
+	 * Read ByteBuf stream to Java Bean, the decompressed content must not
+	 * exceed the maximum length(to prevent the decompression bomb), by
+	 * default it is the same as {@link #readByteBufDecoder(ByteBuf)}.
+	 * 
+	 * @param in
+	 * @param maxContentLength
+	 *            Maximum length of the content(see
+	 *            `core.rpc.max-content-len`)
+	 */
+	public void readByteBufDecoder(ByteBuf in, int maxContentLength) {
+		this.readByteBufDecoder(in);
+	}
+
+	/**
+	 * Release the message, and return it to the pool if it is a pooled
+	 * instance.<br/>
+	 * Note: A pooled instance can only be released once, and must not be
+	 * referenced after release.
+	 */
+	public void release() {
+		if (this.recyclerHandle != null) {
+			this.reset();
+			this.recyclerHandle.recycle(this);
+		}
+	}
+
+	/**
+	 * Reset the message state before recycling, the subclass holding fields
+	 * needs to override it.
+	 */
+	protected void reset() {
+		this.head.reset();
+	}
+
 	/**
 	 * 具体编码实现
 	 * 
@@ -48,4 +111,79 @@ public abstract class Message implements Serializable {
 	 */
 	public abstract void writeBodyBufEncoder(ByteBuf out);
 
+	/**
+	 * Exact encoded length of the message(including head), so that the
+	 * encoder can allocate the buffer once.
+	 * 
+	 * @return Encoded length, or -1 if unknown(e.g. the message is only
+	 *         inbound).
+	 */
+	public int encodedLength() {
+		return -1;
+	}
+
+	/**
+	 * Exact encoded length of the message in the specified wire format, by
+	 * default it is the same as {@link #encodedLength()}.
+	 * 
+	 * @param format
+	 * @return
+	 */
+	public int encodedLength(WireFormat format) {
+		return this.encodedLength();
+	}
+
+	/**
+	 * Encoding in the wire format negotiated by the channel, by default it is
+	 * the same as {@link #writeBodyBufEncoder(ByteBuf)}.
+	 * 
+	 * @param out
+	 * @param format
+	 */
+	public void writeBodyBufEncoder(ByteBuf out, WireFormat format) {
+		this.writeBodyBufEncoder(out);
+	}
+
+	/**
+	 * Write message head.
+	 * 
+	 * @param out
+	 * @param totalLen
+	 *            Total length of the message(including head)
+	 */
+	protected void writeHead(ByteBuf out, int totalLen) {
+		this.writeHead(out, totalLen, this.getHead().getVersion());
+	}
+
+	/**
+	 * Write message head.
+	 * 
+	 * @param out
+	 * @param totalLen
+	 *            Total length of the message(including head)
+	 * @param version
+	 *            Protocol version of the wire format
+	 */
+	protected void writeHead(ByteBuf out, int totalLen, short version) {
+		this.writeHead(out, totalLen, version, this.getHead().getReserve());
+	}
+
+	/**
+	 * Write message head.
+	 * 
+	 * @param out
+	 * @param totalLen
+	 *            Total length of the message(including head)
+	 * @param version
+	 *            Protocol version of the wire format
+	 * @param reserve
+	 *            Reserve flags(e.g. {@link Head#RESERVE_COMPRESSED})
+	 */
+	protected void writeHead(ByteBuf out, int totalLen, short version, byte reserve) {
+		out.writeInt(totalLen);
+		out.writeShort(version);
+		out.writeByte(this.getHead().getActionId());
+		out.writeByte(reserve);
+	}
+
 }
@@ -1,5 +1,7 @@
 package io.transport.core.protocol.message;
 
+import java.util.function.Supplier;
+
 import io.transport.core.protocol.message.internal.ActiveMessage;
 import io.transport.core.protocol.message.internal.ActiveRespMessage;
 import io.transport.core.protocol.message.internal.ClosingMessage;
@@ -7,8 +9,11 @@ import io.transport.core.protocol.message.internal.ConnectMessage;
 import io.transport.core.protocol.message.internal.ConnectRespMessage;
 import io.transport.core.protocol.message.internal.DeviceRegistMessage;
 import io.transport.core.protocol.message.internal.DeviceRegistRespMessage;
+import io.transport.core.protocol.message.internal.RedirectMessage;
 import io.transport.core.protocol.message.internal.ResultRespMessage;
 import io.transport.core.protocol.message.internal.TransportAckRespMessage;
+import io.transport.core.protocol.message.internal.TransportBatchAckRespMessage;
+import io.transport.core.protocol.message.internal.TransportBatchMessage;
 import io.transport.core.protocol.message.internal.TransportMessage;
 
 /**
@@ -24,57 +29,75 @@ public enum MsgType {
 	/**
 	 * 建立连接结果输出
 	 */
-	CONNECT((byte) 1, ConnectMessage.class),
+	CONNECT((byte) 1, ConnectMessage.class, ConnectMessage::new),
 	/**
 	 * 请求建立连接输入
 	 */
-	CONNECT_RESP((byte) 2, ConnectRespMessage.class),
+	CONNECT_RESP((byte) 2, ConnectRespMessage.class, ConnectRespMessage::new),
 	/**
 	 * 链路检测请求
 	 */
-	ACTIVE((byte) 3, ActiveMessage.class),
+	ACTIVE((byte) 3, ActiveMessage.class, ActiveMessage::newInstance),
 	/**
 	 * 链路检测响应
 	 */
-	ACTIVE_RESP((byte) 4, ActiveRespMessage.class),
+	ACTIVE_RESP((byte) 4, ActiveRespMessage.class, ActiveRespMessage::newInstance),
 	/**
 	 * 消息推送
 	 */
-	TRANSPORT((byte) 5, TransportMessage.class),
+	TRANSPORT((byte) 5, TransportMessage.class, TransportMessage::new),
 	/**
 	 * 消息推送结果返回
 	 */
-	TRANSPORT_RESP((byte) 6, TransportAckRespMessage.class),
+	TRANSPORT_RESP((byte) 6, TransportAckRespMessage.class, TransportAckRespMessage::newInstance),
 	/**
 	 * 拆除/关闭连接输入
 	 */
-	CLOSE((byte) 7, ClosingMessage.class),
+	CLOSE((byte) 7, ClosingMessage.class, ClosingMessage::newInstance),
 	/**
 	 * 处理结果消息输出
 	 */
-	RET_RESP((byte) 8, ResultRespMessage.class),
+	RET_RESP((byte) 8, ResultRespMessage.class, ResultRespMessage::newInstance),
 	/**
 	 * 新注册(Web端/前端)设备请求消息（EG：用于Web端ws连接认证）
 	 */
-	DEVICE_REGIS((byte) 9, DeviceRegistMessage.class),
+	DEVICE_REGIS((byte) 9, DeviceRegistMessage.class, DeviceRegistMessage::new),
 	/**
 	 * 新注册(Web端/前端)设备返回消息（EG：用于Web端ws连接认证）
 	 */
-	DEVICE_REGIS_RESP((byte) 10, DeviceRegistRespMessage.class);
+	DEVICE_REGIS_RESP((byte) 10, DeviceRegistRespMessage.class,
+			DeviceRegistRespMessage::newInstance),
+	/**
+	 * 批量消息推送(一帧携带多条消息)
+	 */
+	TRANSPORT_BATCH((byte) 11, TransportBatchMessage.class, TransportBatchMessage::new),
+	/**
+	 * 批量消息推送结果返回
+	 */
+	TRANSPORT_BATCH_RESP((byte) 12, TransportBatchAckRespMessage.class, TransportBatchAckRespMessage::newInstance),
+	/**
+	 * 连接迁移(节点下线前重定向到其他活跃节点)
+	 */
+	REDIRECT((byte) 13, RedirectMessage.class, RedirectMessage::new);
 
-	byte actionId; // action_Id值
-	Class<? extends Message> msgClass; // 应答消息封装对象Class
+	/**
+	 * ActionId to message type table(index: actionId & 0xFF).
+	 */
+	final private static MsgType[] TYPES = new MsgType[256];
 
-	private MsgType() {
+	static {
+		for (MsgType mt : values())
+			TYPES[mt.getActionId() & 0xFF] = mt;
 	}
 
-	private MsgType(byte actionId) {
-		this.actionId = actionId;
-	}
+	byte actionId; // action_Id值
+	Class<? extends Message> msgClass; // 应答消息封装对象Class
+	Supplier<? extends Message> factory; // 消息实例工厂(池化或新建)
 
-	private MsgType(byte actionId, Class<? extends Message> respMsgClass) {
+	private MsgType(byte actionId, Class<? extends Message> respMsgClass, Supplier<? extends Message> factory) {
 		this.actionId = actionId;
 		this.msgClass = respMsgClass;
+		this.factory = factory;
 	}
 
 	public byte getActionId() {
@@ -85,18 +108,18 @@ public enum MsgType {
 		return msgClass;
 	}
 
-	public static MsgType ofType(byte actionId) {
-		for (MsgType mt : values()) {
-			if (mt.getActionId() == actionId) {
-				return mt;
-			}
-		}
-		return null;
+	/**
+	 * New message instance(pooled message types are taken from the
+	 * recycler, see {@link Message#release()}).
+	 * 
+	 * @return
+	 */
+	public Message newMessage() {
+		return factory.get();
 	}
 
-	public static void main(String[] args) {
-		// byte i = 10;
-		// System.out.println(ofType(i));
+	public static MsgType ofType(byte actionId) {
+		return TYPES[actionId & 0xFF];
 	}
 
 }
\ No newline at end of file
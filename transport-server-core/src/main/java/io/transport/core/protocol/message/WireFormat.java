@@ -0,0 +1,121 @@
+package io.transport.core.protocol.message;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import io.transport.core.protocol.message.Head.Version;
+
+/**
+ * Wire format negotiated by the connection.<br/>
+ * V1: The fixed-length fields(zero padding) format.<br/>
+ * V2: The compact format, absent fields are omitted and the present fields
+ * are prefixed by the varint length.<br/>
+ * The payload compression(deflate) is negotiated independently of the
+ * version, see {@link Head#RESERVE_COMPRESSED}.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年3月14日
+ * @since
+ */
+public final class WireFormat {
+	final public static AttributeKey<WireFormat> KEY = AttributeKey.valueOf("transportWireFormat");
+
+	final public static WireFormat V1 = new WireFormat(Version.Version_1_0_0.getVersion(), false, -1);
+	final public static WireFormat V2 = new WireFormat(Version.Version_2_0_0.getVersion(), true, -1);
+
+	private short version;
+	private boolean compact;
+	/**
+	 * Payloads not less than the threshold(bytes) are compressed, negative
+	 * means that compression is disabled.
+	 */
+	private int compressThreshold;
+
+	private WireFormat(short version, boolean compact, int compressThreshold) {
+		this.version = version;
+		this.compact = compact;
+		this.compressThreshold = compressThreshold;
+	}
+
+	public short getVersion() {
+		return version;
+	}
+
+	public boolean isCompact() {
+		return compact;
+	}
+
+	public boolean isCompress() {
+		return compressThreshold >= 0;
+	}
+
+	public int getCompressThreshold() {
+		return compressThreshold;
+	}
+
+	/**
+	 * Get the wire format negotiated by the channel, the default is V1.
+	 * 
+	 * @param channel
+	 * @return
+	 */
+	public static WireFormat of(Channel channel) {
+		WireFormat format = channel.attr(KEY).get();
+		return format != null ? format : V1;
+	}
+
+	/**
+	 * Get the wire format by the protocol version of the message head.
+	 * 
+	 * @param version
+	 * @return
+	 */
+	public static WireFormat of(short version) {
+		return version >= V2.getVersion() ? V2 : V1;
+	}
+
+	/**
+	 * Negotiate the wire format, take the highest version supported by both
+	 * sides.
+	 * 
+	 * @param requested
+	 *            Protocol version requested by the client
+	 * @param compactEnable
+	 *            Whether the server enables the compact format
+	 * @param compressRequested
+	 *            Whether the client supports payload compression
+	 * @param compressThreshold
+	 *            Compression threshold of the server, negative means
+	 *            disabled
+	 * @return
+	 */
+	public static WireFormat negotiate(short requested, boolean compactEnable, boolean compressRequested,
+			int compressThreshold) {
+		WireFormat format = (compactEnable && requested >= V2.getVersion()) ? V2 : V1;
+		if (compressRequested && compressThreshold >= 0)
+			return new WireFormat(format.getVersion(), format.isCompact(), compressThreshold);
+		return format;
+	}
+
+	@Override
+	public int hashCode() {
+		return (version * 31 + (compact ? 1 : 0)) * 31 + compressThreshold;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof WireFormat))
+			return false;
+		WireFormat other = (WireFormat) obj;
+		return version == other.version && compact == other.compact && compressThreshold == other.compressThreshold;
+	}
+
+	@Override
+	public String toString() {
+		return "WireFormat [version=" + version + ", compact=" + compact + ", compressThreshold=" + compressThreshold
+				+ "]";
+	}
+
+}
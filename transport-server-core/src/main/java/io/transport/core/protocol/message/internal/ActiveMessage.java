@@ -1,6 +1,7 @@
 package io.transport.core.protocol.message.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
 
@@ -15,10 +16,16 @@ import io.transport.core.protocol.message.MsgType;
 public class ActiveMessage extends Message {
 	private static final long serialVersionUID = 5283116454529585401L;
 
+	final private static Recycler<ActiveMessage> RECYCLER = newRecycler(ActiveMessage::new);
+
 	public ActiveMessage() {
 		this.getHead().setActionId(MsgType.ACTIVE.getActionId());
 	}
 
+	public static ActiveMessage newInstance() {
+		return RECYCLER.get();
+	}
+
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
 	}
@@ -1,6 +1,7 @@
 package io.transport.core.protocol.message.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import io.transport.core.protocol.message.Head;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
@@ -16,21 +17,29 @@ import io.transport.core.protocol.message.MsgType;
 public class ActiveRespMessage extends Message {
 	private static final long serialVersionUID = 5283116454529585401L;
 
+	final private static Recycler<ActiveRespMessage> RECYCLER = newRecycler(ActiveRespMessage::new);
+
 	public ActiveRespMessage() {
 		this.getHead().setActionId(MsgType.ACTIVE_RESP.getActionId());
 	}
 
+	public static ActiveRespMessage newInstance() {
+		return RECYCLER.get();
+	}
+
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
 		throw new UnsupportedOperationException("不支持的操作.");
 	}
 
+	@Override
+	public int encodedLength() {
+		return Head.HEAD_LEN;
+	}
+
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		out.writeInt(Head.HEAD_LEN + 0);
-		out.writeShort(this.getHead().getVersion());
-		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
+		this.writeHead(out, Head.HEAD_LEN);
 	}
 
 	@Override
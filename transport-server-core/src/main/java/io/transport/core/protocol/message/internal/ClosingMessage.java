@@ -1,6 +1,7 @@
 package io.transport.core.protocol.message.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
 
@@ -15,10 +16,16 @@ import io.transport.core.protocol.message.MsgType;
 public class ClosingMessage extends Message {
 	private static final long serialVersionUID = 5283116454529585401L;
 
+	final private static Recycler<ClosingMessage> RECYCLER = newRecycler(ClosingMessage::new);
+
 	public ClosingMessage() {
 		this.getHead().setActionId(MsgType.CLOSE.getActionId());
 	}
 
+	public static ClosingMessage newInstance() {
+		return RECYCLER.get();
+	}
+
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
 	}
@@ -12,6 +12,7 @@ import io.netty.util.CharsetUtil;
 import io.transport.core.protocol.message.Head;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
+import io.transport.core.utils.ByteBufUtils;
 
 /**
  * 建立连接结果输出消息
@@ -51,15 +52,25 @@ public class ConnectRespMessage extends Message {
 		throw new UnsupportedOperationException("不支持的操作.");
 	}
 
+	@Override
+	public int encodedLength() {
+		int len = Head.HEAD_LEN;
+		for (String hap : this.getHostAndPorts())
+			len += ByteBufUtils.utf8Length(hap) + 1; // With separator
+		return this.getHostAndPorts().isEmpty() ? len : (len - 1);
+	}
+
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		byte[] bys = this.getHostAndPortsBytes();
 		// 返回集群节点列表
-		out.writeInt(Head.HEAD_LEN + bys.length);
-		out.writeShort(this.getHead().getVersion());
-		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
-		out.writeBytes(bys);
+		this.writeHead(out, this.encodedLength());
+		boolean first = true;
+		for (String hap : this.getHostAndPorts()) {
+			if (!first)
+				out.writeByte(',');
+			ByteBufUtils.writeUtf8(out, hap);
+			first = false;
+		}
 	}
 
 	@Override
@@ -0,0 +1,76 @@
+package io.transport.core.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.transport.core.protocol.message.Head;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.MsgType;
+import io.transport.core.utils.ByteBufUtils;
+
+/**
+ * 连接迁移(重定向)输出消息<br/>
+ * The node is draining(e.g. rolling restart), the client should reconnect
+ * to the nodes of the list in order(the first is the preferred node), an
+ * empty list means reconnecting as usual.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月23日
+ * @since
+ */
+public class RedirectMessage extends Message {
+	private static final long serialVersionUID = 5283116454529585401L;
+
+	private List<String> hostAndPorts = new ArrayList<>();
+
+	public RedirectMessage() {
+		this.getHead().setActionId(MsgType.REDIRECT.getActionId());
+	}
+
+	public RedirectMessage(List<String> hostAndPorts) {
+		this();
+		this.hostAndPorts = hostAndPorts;
+	}
+
+	public List<String> getHostAndPorts() {
+		return hostAndPorts;
+	}
+
+	public void setHostAndPorts(List<String> hostAndPorts) {
+		this.hostAndPorts = hostAndPorts;
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		throw new UnsupportedOperationException("不支持的操作.");
+	}
+
+	@Override
+	public int encodedLength() {
+		int len = Head.HEAD_LEN;
+		for (String hap : this.getHostAndPorts())
+			len += ByteBufUtils.utf8Length(hap) + 1; // With separator
+		return this.getHostAndPorts().isEmpty() ? len : (len - 1);
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		// 迁移目标节点列表(有序)
+		this.writeHead(out, this.encodedLength());
+		boolean first = true;
+		for (String hap : this.getHostAndPorts()) {
+			if (!first)
+				out.writeByte(',');
+			ByteBufUtils.writeUtf8(out, hap);
+			first = false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RedirectMessage [getHead()=" + getHead() + ", hostAndPorts=" + hostAndPorts + "]";
+	}
+
+}
@@ -1,6 +1,7 @@
 package io.transport.core.protocol.message.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import io.transport.core.protocol.message.Head;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
@@ -21,6 +22,8 @@ public class ResultRespMessage extends Message {
 	private String type; // 对应具体处理的actionId
 	private String message;
 
+	final private static Recycler<ResultRespMessage> RECYCLER = newRecycler(ResultRespMessage::new);
+
 	public ResultRespMessage() {
 		this(RetCode.OK, null);
 	}
@@ -39,6 +42,26 @@ public class ResultRespMessage extends Message {
 			this.setMessage(message);
 	}
 
+	public static ResultRespMessage newInstance() {
+		return newInstance(RetCode.OK, null, null);
+	}
+
+	/**
+	 * Get a pooled instance, it is recycled after released.
+	 * 
+	 * @param retCode
+	 * @param type
+	 * @param message
+	 * @return
+	 */
+	public static ResultRespMessage newInstance(RetCode retCode, String type, String message) {
+		ResultRespMessage resp = RECYCLER.get();
+		resp.setCode(retCode.getCode());
+		resp.setType(type);
+		resp.setMessage((message == null) ? retCode.getMsg() : message);
+		return resp;
+	}
+
 	public String getType() {
 		return type;
 	}
@@ -66,26 +89,37 @@ public class ResultRespMessage extends Message {
 			this.message = message;
 	}
 
+	@Override
+	protected void reset() {
+		super.reset();
+		this.code = null;
+		this.type = null;
+		this.message = null;
+	}
+
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
 		throw new UnsupportedOperationException("不支持的操作.");
 	}
 
+	@Override
+	public int encodedLength() {
+		return Head.HEAD_LEN + 4 * 3 + ByteBufUtils.utf8Length(this.getCode())
+				+ ByteBufUtils.utf8Length(this.getType()) + ByteBufUtils.utf8Length(this.getMessage());
+	}
+
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		byte[] codeBuf = ByteBufUtils.toBytes(this.getCode());
-		byte[] typeBuf = ByteBufUtils.toBytes(this.getType());
-		byte[] msgBuf = ByteBufUtils.toBytes(this.getMessage());
-		out.writeInt(Head.HEAD_LEN + codeBuf.length + typeBuf.length + msgBuf.length);
-		out.writeShort(this.getHead().getVersion());
-		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
-		out.writeInt(codeBuf.length);
-		out.writeBytes(codeBuf);
-		out.writeInt(typeBuf.length);
-		out.writeBytes(typeBuf);
-		out.writeInt(msgBuf.length);
-		out.writeBytes(msgBuf);
+		int codeLen = ByteBufUtils.utf8Length(this.getCode());
+		int typeLen = ByteBufUtils.utf8Length(this.getType());
+		int msgLen = ByteBufUtils.utf8Length(this.getMessage());
+		this.writeHead(out, Head.HEAD_LEN + 4 * 3 + codeLen + typeLen + msgLen);
+		out.writeInt(codeLen);
+		ByteBufUtils.writeUtf8(out, this.getCode());
+		out.writeInt(typeLen);
+		ByteBufUtils.writeUtf8(out, this.getType());
+		out.writeInt(msgLen);
+		ByteBufUtils.writeUtf8(out, this.getMessage());
 	}
 
 	@Override
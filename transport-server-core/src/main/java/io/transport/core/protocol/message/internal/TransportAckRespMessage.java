@@ -1,6 +1,7 @@
 package io.transport.core.protocol.message.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import io.transport.core.protocol.message.Head;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
@@ -21,6 +22,8 @@ public class TransportAckRespMessage extends Message {
 	private int msgId;
 	private byte status = 1; // 状态(用于扩展)
 
+	final private static Recycler<TransportAckRespMessage> RECYCLER = newRecycler(TransportAckRespMessage::new);
+
 	public TransportAckRespMessage() {
 		this(0);
 	}
@@ -37,6 +40,22 @@ public class TransportAckRespMessage extends Message {
 		this.setStatus(status);
 	}
 
+	public static TransportAckRespMessage newInstance() {
+		return RECYCLER.get();
+	}
+
+	/**
+	 * Get a pooled instance, it is recycled after released.
+	 * 
+	 * @param msgId
+	 * @return
+	 */
+	public static TransportAckRespMessage newInstance(int msgId) {
+		TransportAckRespMessage ack = RECYCLER.get();
+		ack.setMsgId(msgId);
+		return ack;
+	}
+
 	public int getMsgId() {
 		return msgId;
 	}
@@ -53,19 +72,27 @@ public class TransportAckRespMessage extends Message {
 		this.status = status;
 	}
 
+	@Override
+	protected void reset() {
+		super.reset();
+		this.msgId = 0;
+		this.status = 1;
+	}
+
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
 		this.setMsgId(in.readInt());
 		this.setStatus(in.readByte());
 	}
 
+	@Override
+	public int encodedLength() {
+		return Head.HEAD_LEN + TransportMessage.MSGID_LEN + STATUS_LEN;
+	}
+
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		int totalLen = Head.HEAD_LEN + TransportMessage.MSGID_LEN + STATUS_LEN;
-		out.writeInt(totalLen);
-		out.writeShort(this.getHead().getVersion());
-		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
+		this.writeHead(out, this.encodedLength());
 		out.writeInt(this.getMsgId()); // 消息ID
 		out.writeByte(this.getStatus());
 	}
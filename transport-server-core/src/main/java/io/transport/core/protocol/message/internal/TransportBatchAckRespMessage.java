@@ -0,0 +1,94 @@
+package io.transport.core.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
+import io.transport.common.utils.exception.TransportException;
+import io.transport.core.protocol.message.Head;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.MsgType;
+
+/**
+ * 批量传送消息接收结果返回<br/>
+ * Batch ACK报文, body is: count(2) + msgId(4)*count
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月10日
+ * @since
+ */
+public class TransportBatchAckRespMessage extends Message {
+	final private static long serialVersionUID = 3908716302127457817L;
+
+	private List<Integer> msgIds = new ArrayList<>();
+
+	final private static Recycler<TransportBatchAckRespMessage> RECYCLER = newRecycler(TransportBatchAckRespMessage::new);
+
+	public TransportBatchAckRespMessage() {
+		this.getHead().setActionId(MsgType.TRANSPORT_BATCH_RESP.getActionId());
+	}
+
+	public static TransportBatchAckRespMessage newInstance() {
+		return RECYCLER.get();
+	}
+
+	public List<Integer> getMsgIds() {
+		return msgIds;
+	}
+
+	public void setMsgIds(List<Integer> msgIds) {
+		this.msgIds = msgIds;
+	}
+
+	/**
+	 * Add the acknowledged msgId.
+	 * 
+	 * @param msgId
+	 * @return
+	 */
+	public TransportBatchAckRespMessage addMsgId(int msgId) {
+		if (this.msgIds.size() >= TransportBatchMessage.MAX_COUNT)
+			throw new TransportException(
+					"Protocol error, batch msgIds cannot be greater than " + TransportBatchMessage.MAX_COUNT);
+		this.msgIds.add(msgId);
+		return this;
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		this.msgIds.clear();
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		int count = in.readUnsignedShort();
+		if (Head.HEAD_LEN + TransportBatchMessage.COUNT_LEN + count * TransportMessage.MSGID_LEN != this.getHead()
+				.getTotalLen())
+			throw new TransportException("Protocol error, illegal batch ack length. " + this.getHead().getTotalLen());
+
+		for (int i = 0; i < count; i++)
+			this.msgIds.add(in.readInt());
+	}
+
+	@Override
+	public int encodedLength() {
+		return Head.HEAD_LEN + TransportBatchMessage.COUNT_LEN + this.msgIds.size() * TransportMessage.MSGID_LEN;
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		this.writeHead(out, this.encodedLength());
+		out.writeShort(this.msgIds.size());
+		for (int msgId : this.msgIds)
+			out.writeInt(msgId); // 消息ID
+	}
+
+	@Override
+	public String toString() {
+		return "TransportBatchAckRespMessage [msgIds=" + msgIds + "]";
+	}
+
+}
@@ -0,0 +1,149 @@
+package io.transport.core.protocol.message.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.transport.common.utils.exception.TransportException;
+import io.transport.core.protocol.message.Head;
+import io.transport.core.protocol.message.Message;
+import io.transport.core.protocol.message.MsgType;
+import io.transport.core.protocol.message.WireFormat;
+import io.transport.core.utils.ByteBufUtils;
+
+/**
+ * 批量传送消息<br/>
+ * Many transport messages carried in one frame(sharing the head and ack),
+ * the body is: count(2) + [bodyLen(4) + transport message body]*count, and
+ * the message bodies use the wire format of the batch head.<br/>
+ * Note: The payloads of the batch are not compressed when encoding(the
+ * compressed flag of the batch head applies to all messages).
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月10日
+ * @since
+ */
+public class TransportBatchMessage extends Message {
+	final private static long serialVersionUID = -3466124517380553401L;
+	final transient public static int COUNT_LEN = 2;
+	final transient public static int BODY_LEN = 4;
+	/**
+	 * Maximum number of messages in a batch.
+	 */
+	final transient public static int MAX_COUNT = 0xFFFF;
+
+	private List<TransportMessage> messages = new ArrayList<>();
+
+	public TransportBatchMessage() {
+		this.getHead().setActionId(MsgType.TRANSPORT_BATCH.getActionId());
+	}
+
+	public TransportBatchMessage(List<TransportMessage> messages) {
+		this();
+		this.setMessages(messages);
+	}
+
+	public List<TransportMessage> getMessages() {
+		return messages;
+	}
+
+	public void setMessages(List<TransportMessage> messages) {
+		if (messages != null && messages.size() > MAX_COUNT)
+			throw new TransportException("Protocol error, batch messages cannot be greater than " + MAX_COUNT);
+		this.messages = messages;
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in) {
+		this.readByteBufDecoder(in, TransportMessage.DEFAULT_MAX_CONTENT_LEN);
+	}
+
+	/**
+	 * Read the messages of the batch, each message is decoded with its own
+	 * head(derived from the batch head), and the maximum content length
+	 * applies to the whole batch.
+	 */
+	@Override
+	public void readByteBufDecoder(ByteBuf in, int maxContentLength) {
+		int remaining = this.getHead().getTotalLen() - Head.HEAD_LEN - COUNT_LEN;
+		int contentRemaining = maxContentLength;
+		int count = in.readUnsignedShort();
+		try {
+			for (int i = 0; i < count; i++) {
+				int len = in.readInt();
+				remaining -= BODY_LEN;
+				if (len < TransportMessage.MSGID_LEN || len > remaining)
+					throw new TransportException("Protocol error, illegal batch message length. " + len);
+
+				TransportMessage msg = new TransportMessage();
+				msg.getHead().setTotalLen(Head.HEAD_LEN + len);
+				msg.getHead().setVersion(this.getHead().getVersion());
+				msg.getHead().setReserve(this.getHead().getReserve());
+				msg.readByteBufDecoder(in, contentRemaining);
+				this.messages.add(msg);
+				remaining -= len;
+				contentRemaining -= ByteBufUtils.utf8Length(msg.getPayload());
+			}
+			if (remaining != 0)
+				throw new TransportException("Protocol error, illegal batch length. " + this.getHead().getTotalLen());
+		} catch (RuntimeException e) {
+			this.releaseMessages();
+			throw e;
+		}
+	}
+
+	@Override
+	public void release() {
+		this.releaseMessages();
+		super.release();
+	}
+
+	/**
+	 * Release the messages of the batch.
+	 */
+	private void releaseMessages() {
+		if (this.messages != null) {
+			for (TransportMessage msg : this.messages)
+				msg.release();
+		}
+	}
+
+	@Override
+	public int encodedLength() {
+		return this.encodedLength(WireFormat.of(this.getHead().getVersion()));
+	}
+
+	@Override
+	public int encodedLength(WireFormat format) {
+		WireFormat bodyFormat = WireFormat.of(format.getVersion()); // Uncompressed
+		int len = Head.HEAD_LEN + COUNT_LEN;
+		for (TransportMessage msg : this.messages)
+			len += BODY_LEN + msg.bodyLength(bodyFormat);
+		return len;
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out) {
+		this.writeBodyBufEncoder(out, WireFormat.of(this.getHead().getVersion()));
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out, WireFormat format) {
+		WireFormat bodyFormat = WireFormat.of(format.getVersion()); // Uncompressed
+		this.writeHead(out, this.encodedLength(format), format.getVersion(),
+				(byte) (this.getHead().getReserve() & ~Head.RESERVE_COMPRESSED));
+		out.writeShort(this.messages.size());
+		for (TransportMessage msg : this.messages) {
+			out.writeInt(msg.bodyLength(bodyFormat));
+			msg.writeBody(out, bodyFormat);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TransportBatchMessage [count=" + (messages != null ? messages.size() : 0) + ", messages=" + messages
+				+ "]";
+	}
+
+}
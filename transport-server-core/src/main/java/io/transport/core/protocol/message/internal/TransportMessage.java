@@ -7,6 +7,7 @@ import io.transport.core.protocol.message.DeviceInfo;
 import io.transport.core.protocol.message.Head;
 import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
+import io.transport.core.protocol.message.WireFormat;
 import io.transport.core.utils.ByteBufUtils;
 import io.transport.core.utils.CRC16;
 
@@ -23,6 +24,30 @@ public class TransportMessage extends Message {
 	final transient public static int MSGID_LEN = 4;
 	final transient public static int CLASSIFIER_LEN = 50;
 
+	// Fields index(the presence flag bits of the V2 compact format).
+	final transient private static int FIELD_FROM = 0;
+	final transient private static int FIELD_TO = 1;
+	final transient private static int FIELD_GROUP = 2;
+	final transient private static int FIELD_CLASSIFIER = 3;
+	/**
+	 * Maximum length of the fields(the same as the V1 fixed length).
+	 */
+	final transient private static int[] FIELD_LENS = { DeviceInfo.ID_LEN, DeviceInfo.ID_LEN,
+			DeviceInfo.GROUP_ID_LEN, CLASSIFIER_LEN };
+	/**
+	 * V2 compact format, presence flags length(bytes).
+	 */
+	final transient public static int FLAGS_LEN = 1;
+	/**
+	 * Default maximum decompressed length of the payload(bytes), the same as
+	 * the default `core.rpc.max-content-len`.
+	 */
+	final transient public static int DEFAULT_MAX_CONTENT_LEN = 32768;
+	/**
+	 * Marker of the payload that can not be compressed smaller.
+	 */
+	final transient private static byte[] INCOMPRESSIBLE = new byte[0];
+
 	private int msgId; // 消息ID digest(fromDeviceId+toDeviceId)
 	private String fromDeviceId;
 	private String toDeviceId;
@@ -32,6 +57,12 @@ public class TransportMessage extends Message {
 	private String classifier;
 	private String payload;
 
+	/**
+	 * Compressed payload cache(the same message may be encoded for multiple
+	 * channels).
+	 */
+	private transient volatile byte[] deflatedPayload;
+
 	public TransportMessage() {
 		this(null, null, null);
 	}
@@ -72,8 +103,10 @@ public class TransportMessage extends Message {
 	}
 
 	public void setPayload(String payload) {
-		if (payload != null)
+		if (payload != null) {
 			this.payload = payload;
+			this.deflatedPayload = null;
+		}
 	}
 
 	public String getFromDeviceId() {
@@ -81,7 +114,7 @@ public class TransportMessage extends Message {
 	}
 
 	public void setFromDeviceId(String fromDeviceId) {
-		if (fromDeviceId != null && fromDeviceId.getBytes(CharsetUtil.UTF_8).length > DeviceInfo.ID_LEN)
+		if (fromDeviceId != null && ByteBufUtils.utf8Length(fromDeviceId) > DeviceInfo.ID_LEN)
 			throw new TransportException(
 					"Protocol error, parameter 'fromDeviceId' length cannot be greater than " + DeviceInfo.ID_LEN);
 		this.fromDeviceId = fromDeviceId;
@@ -92,7 +125,7 @@ public class TransportMessage extends Message {
 	}
 
 	public void setToDeviceId(String toDeviceId) {
-		if (toDeviceId != null && toDeviceId.getBytes(CharsetUtil.UTF_8).length > DeviceInfo.ID_LEN)
+		if (toDeviceId != null && ByteBufUtils.utf8Length(toDeviceId) > DeviceInfo.ID_LEN)
 			throw new TransportException(
 					"Protocol error, parameter 'toDeviceId' length cannot be greater than " + DeviceInfo.ID_LEN);
 		this.toDeviceId = toDeviceId;
@@ -103,7 +136,7 @@ public class TransportMessage extends Message {
 	}
 
 	public void setToGroupId(String toGroupId) {
-		if (toGroupId != null && toGroupId.getBytes(CharsetUtil.UTF_8).length > DeviceInfo.GROUP_ID_LEN)
+		if (toGroupId != null && ByteBufUtils.utf8Length(toGroupId) > DeviceInfo.GROUP_ID_LEN)
 			throw new TransportException(
 					"Protocol error, parameter 'toGroupId' length cannot be greater than " + DeviceInfo.GROUP_ID_LEN);
 		this.toGroupId = toGroupId;
@@ -111,36 +144,231 @@ public class TransportMessage extends Message {
 
 	@Override
 	public void readByteBufDecoder(ByteBuf in) {
+		this.readByteBufDecoder(in, DEFAULT_MAX_CONTENT_LEN);
+	}
+
+	@Override
+	public void readByteBufDecoder(ByteBuf in, int maxContentLength) {
+		// V2 compact format.
+		if (WireFormat.of(this.getHead().getVersion()).isCompact()) {
+			this.readCompactBody(in, maxContentLength);
+			return;
+		}
+
 		this.setMsgId(in.readInt());
-		this.setFromDeviceId(ByteBufUtils.readString(in, DeviceInfo.ID_LEN));
-		this.setToDeviceId(ByteBufUtils.readString(in, DeviceInfo.ID_LEN));
-		this.setToGroupId(ByteBufUtils.readString(in, DeviceInfo.GROUP_ID_LEN));
-		this.setClassifier(ByteBufUtils.readString(in, CLASSIFIER_LEN));
 		int len = this.getHead().getTotalLen()
 				- (Head.HEAD_LEN + MSGID_LEN + DeviceInfo.ID_LEN * 2 + DeviceInfo.GROUP_ID_LEN + CLASSIFIER_LEN);
-		this.setPayload(ByteBufUtils.readString(in, len));
+		if (len < 0)
+			throw new TransportException("Protocol error, illegal transport message length. " + len);
+
+		// Decoding directly from the frame, trimming padding without copying.
+		this.setFromDeviceId(ByteBufUtils.readFixedString(in, DeviceInfo.ID_LEN));
+		this.setToDeviceId(ByteBufUtils.readFixedString(in, DeviceInfo.ID_LEN));
+		this.setToGroupId(ByteBufUtils.readFixedString(in, DeviceInfo.GROUP_ID_LEN));
+		this.setClassifier(ByteBufUtils.readFixedString(in, CLASSIFIER_LEN));
+		this.readPayload(in, len, maxContentLength);
+	}
+
+	/**
+	 * Read the V2 compact format body.<br/>
+	 * msgId(4) + flags(1) + [varint(len) + utf8 bytes](present fields) +
+	 * payload
+	 * 
+	 * @param in
+	 * @param maxContentLength
+	 */
+	private void readCompactBody(ByteBuf in, int maxContentLength) {
+		this.setMsgId(in.readInt());
+		int len = this.getHead().getTotalLen() - (Head.HEAD_LEN + MSGID_LEN);
+		if (len < FLAGS_LEN || len > in.readableBytes())
+			throw new TransportException("Protocol error, illegal transport message length. " + len);
+
+		int end = in.readerIndex() + len;
+		byte flags = in.readByte();
+		this.setFromDeviceId(readCompactField(in, flags, FIELD_FROM, end));
+		this.setToDeviceId(readCompactField(in, flags, FIELD_TO, end));
+		this.setToGroupId(readCompactField(in, flags, FIELD_GROUP, end));
+		this.setClassifier(readCompactField(in, flags, FIELD_CLASSIFIER, end));
+		this.readPayload(in, end - in.readerIndex(), maxContentLength);
+	}
+
+	/**
+	 * Read the V2 compact field.
+	 * 
+	 * @param in
+	 * @param flags
+	 *            Presence flags
+	 * @param field
+	 * @param end
+	 *            End index of the body
+	 * @return null if the field is absent.
+	 */
+	private static String readCompactField(ByteBuf in, byte flags, int field, int end) {
+		if ((flags & (1 << field)) == 0)
+			return null;
+
+		int fieldLen = ByteBufUtils.readVarInt(in);
+		// The maximum length is the same as the V1 fixed length.
+		if (fieldLen < 0 || fieldLen > FIELD_LENS[field] || fieldLen > end - in.readerIndex())
+			throw new TransportException("Protocol error, illegal field length. " + fieldLen);
+		String s = in.toString(in.readerIndex(), fieldLen, CharsetUtil.UTF_8);
+		in.skipBytes(fieldLen);
+		return s;
+	}
+
+	/**
+	 * Read the payload(the compressed payload is decompressed).
+	 * 
+	 * @param in
+	 * @param len
+	 * @param maxContentLength
+	 *            Maximum decompressed length
+	 */
+	private void readPayload(ByteBuf in, int len, int maxContentLength) {
+		if (this.getHead().hasReserve(Head.RESERVE_COMPRESSED)) {
+			this.setPayload(ByteBufUtils.inflate(in, in.readerIndex(), len, maxContentLength));
+			this.clearCompressed();
+		} else
+			this.setPayload(in.toString(in.readerIndex(), len, CharsetUtil.UTF_8));
+		in.skipBytes(len);
+	}
+
+	/**
+	 * Clear the compressed flag after decompression, the head may be reused
+	 * when forwarding.
+	 */
+	private void clearCompressed() {
+		this.getHead().setReserve((byte) (this.getHead().getReserve() & ~Head.RESERVE_COMPRESSED));
+	}
+
+	@Override
+	public int encodedLength() {
+		return this.encodedLength(WireFormat.of(this.getHead().getVersion()));
+	}
+
+	@Override
+	public int encodedLength(WireFormat format) {
+		return Head.HEAD_LEN + this.bodyLength(format);
 	}
 
 	@Override
 	public void writeBodyBufEncoder(ByteBuf out) {
-		byte[] fromDeviceIdBuf = ByteBufUtils.coverFixedBuf(this.getFromDeviceId(), DeviceInfo.ID_LEN);
-		byte[] toDeviceIdBuf = ByteBufUtils.coverFixedBuf(this.getToDeviceId(), DeviceInfo.ID_LEN);
-		byte[] toGroupIdBuf = ByteBufUtils.coverFixedBuf(this.getToGroupId(), DeviceInfo.GROUP_ID_LEN);
-		byte[] classifierBuf = ByteBufUtils.coverFixedBuf(this.getClassifier(), CLASSIFIER_LEN);
-		byte[] payloadBuf = ByteBufUtils.toBytes(this.getPayload());
-		int totalLen = Head.HEAD_LEN + MSGID_LEN + DeviceInfo.ID_LEN * 2 + DeviceInfo.GROUP_ID_LEN + CLASSIFIER_LEN
-				+ payloadBuf.length;
-
-		out.writeInt(totalLen);
-		out.writeShort(this.getHead().getVersion());
-		out.writeByte(this.getHead().getActionId());
-		out.writeByte(this.getHead().getReserve());
+		this.writeBodyBufEncoder(out, WireFormat.of(this.getHead().getVersion()));
+	}
+
+	@Override
+	public void writeBodyBufEncoder(ByteBuf out, WireFormat format) {
+		byte reserve = this.getHead().getReserve();
+		if (this.deflatedPayload(format) != null)
+			reserve |= Head.RESERVE_COMPRESSED;
+		this.writeHead(out, this.encodedLength(format), format.getVersion(), reserve);
+		this.writeBody(out, format);
+	}
+
+	/**
+	 * Encoded length of the body(excluding head).
+	 * 
+	 * @param format
+	 * @return
+	 */
+	int bodyLength(WireFormat format) {
+		if (format.isCompact()) {
+			return MSGID_LEN + FLAGS_LEN + compactFieldLength(this.getFromDeviceId())
+					+ compactFieldLength(this.getToDeviceId()) + compactFieldLength(this.getToGroupId())
+					+ compactFieldLength(this.getClassifier()) + this.payloadLength(format);
+		}
+		return MSGID_LEN + DeviceInfo.ID_LEN * 2 + DeviceInfo.GROUP_ID_LEN + CLASSIFIER_LEN
+				+ this.payloadLength(format);
+	}
+
+	/**
+	 * Write the body(excluding head), see {@link TransportBatchMessage}.
+	 * 
+	 * @param out
+	 * @param format
+	 */
+	void writeBody(ByteBuf out, WireFormat format) {
 		out.writeInt(this.getMsgId()); // 消息ID
-		out.writeBytes(fromDeviceIdBuf);
-		out.writeBytes(toDeviceIdBuf);
-		out.writeBytes(toGroupIdBuf);
-		out.writeBytes(classifierBuf);
-		out.writeBytes(payloadBuf); // 负载消息
+		// V2 compact format, the absent fields are omitted.
+		if (format.isCompact()) {
+			String[] fields = { this.getFromDeviceId(), this.getToDeviceId(), this.getToGroupId(),
+					this.getClassifier() };
+			int flags = 0;
+			for (int field = FIELD_FROM; field <= FIELD_CLASSIFIER; field++) {
+				if (!ByteBufUtils.checkEmpty(fields[field]))
+					flags |= (1 << field);
+			}
+			out.writeByte(flags);
+			for (int field = FIELD_FROM; field <= FIELD_CLASSIFIER; field++) {
+				if (!ByteBufUtils.checkEmpty(fields[field])) {
+					ByteBufUtils.writeVarInt(out, ByteBufUtils.utf8Length(fields[field]));
+					ByteBufUtils.writeUtf8(out, fields[field]);
+				}
+			}
+		} else {
+			ByteBufUtils.writeFixedString(out, this.getFromDeviceId(), DeviceInfo.ID_LEN);
+			ByteBufUtils.writeFixedString(out, this.getToDeviceId(), DeviceInfo.ID_LEN);
+			ByteBufUtils.writeFixedString(out, this.getToGroupId(), DeviceInfo.GROUP_ID_LEN);
+			ByteBufUtils.writeFixedString(out, this.getClassifier(), CLASSIFIER_LEN);
+		}
+		// 负载消息
+		byte[] deflated = this.deflatedPayload(format);
+		if (deflated != null)
+			out.writeBytes(deflated);
+		else
+			ByteBufUtils.writeUtf8(out, this.payload);
+	}
+
+	/**
+	 * Encoded length of the V2 compact field.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	private static int compactFieldLength(String field) {
+		if (ByteBufUtils.checkEmpty(field))
+			return 0;
+		int len = ByteBufUtils.utf8Length(field);
+		return ByteBufUtils.varIntLength(len) + len;
+	}
+
+	/**
+	 * Encoded length of the payload in the wire format.
+	 * 
+	 * @param format
+	 * @return
+	 */
+	private int payloadLength(WireFormat format) {
+		byte[] deflated = this.deflatedPayload(format);
+		return deflated != null ? deflated.length : this.payloadLength();
+	}
+
+	/**
+	 * Get the compressed payload if the wire format enables compression and
+	 * the payload reaches the threshold.
+	 * 
+	 * @param format
+	 * @return The compressed payload, or null if not compressed.
+	 */
+	private byte[] deflatedPayload(WireFormat format) {
+		if (!format.isCompress() || this.payloadLength() < format.getCompressThreshold())
+			return null;
+
+		byte[] deflated = this.deflatedPayload;
+		if (deflated == null) {
+			deflated = ByteBufUtils.deflate(this.getPayload());
+			this.deflatedPayload = deflated = (deflated != null ? deflated : INCOMPRESSIBLE);
+		}
+		return deflated != INCOMPRESSIBLE ? deflated : null;
+	}
+
+	/**
+	 * Raw encoded length of the payload.
+	 * 
+	 * @return
+	 */
+	private int payloadLength() {
+		return ByteBufUtils.utf8Length(this.payload);
 	}
 
 	@Override
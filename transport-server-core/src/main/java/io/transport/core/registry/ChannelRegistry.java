@@ -1,7 +1,10 @@
 package io.transport.core.registry;
 
+import java.util.Collection;
 import java.util.Set;
 
+import com.google.common.cache.CacheStats;
+
 import io.netty.channel.socket.SocketChannel;
 
 /**
@@ -15,14 +18,21 @@ import io.netty.channel.socket.SocketChannel;
 public abstract interface ChannelRegistry {
 
 	/**
-	 * 依据groupId获取本地节点的所有client列表.
+	 * 依据groupId获取本地节点的所有client列表(本地组索引的只读视图, 不访问Redis).
 	 * 
 	 * @param groupId
 	 *            组ID(一般为userId)
-	 * @return
+	 * @return null if there are no local clients of the group.
 	 */
 	Set<Client> getLocalClients(String groupId);
 
+	/**
+	 * 获取本地节点的所有client(只读视图).
+	 * 
+	 * @return
+	 */
+	Collection<Client> getLocalClients();
+
 	/**
 	 * 依据deviceId获取本地节点client.
 	 * 
@@ -48,6 +58,15 @@ public abstract interface ChannelRegistry {
 	 */
 	boolean localContains(String clientId);
 
+	/**
+	 * 校验clientId是否存在(the key of the client is used directly, no
+	 * decoding or encoding of the device id).
+	 * 
+	 * @param deviceKey
+	 * @return
+	 */
+	boolean localContains(DeviceKey deviceKey);
+
 	/**
 	 * 当前本地节点的连接数大小
 	 * 
@@ -58,7 +77,9 @@ public abstract interface ChannelRegistry {
 	int localSize();
 
 	/**
-	 * 获取deviceId在集群中client信息，请注意：socketChannel字段将为空（因为可能socketChannel可能不在当前本地节点上）.
+	 * 获取deviceId在集群中client信息，请注意：socketChannel字段将为空（因为可能socketChannel可能不在当前本地节点上）.<br/>
+	 * The client info is cached by the near cache, the returned client must
+	 * not be modified.
 	 * 
 	 * @param deviceId
 	 *            等同于clientId
@@ -66,6 +87,13 @@ public abstract interface ChannelRegistry {
 	 */
 	Client getClient(String deviceId);
 
+	/**
+	 * Statistics of the near cache of {@link #getClient(String)}.
+	 * 
+	 * @return null if the near cache is disabled.
+	 */
+	CacheStats getClientCacheStats();
+
 	/**
 	 * 依据appId获取本地节点的所有groupId列表.
 	 * 
@@ -2,13 +2,22 @@ package io.transport.core.registry;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.util.AttributeKey;
 import io.transport.core.protocol.message.DeviceInfo;
 
 /**
- * 客户端(终端) socket连接通道相关信息
+ * 客户端(终端) socket连接通道相关信息<br/>
+ * It is the single per-connection state object, kept compact for a large
+ * number of connections: the device id is kept as the UTF-8 bytes key
+ * of the registry, the appId/groupId/deviceType(low cardinality) are
+ * interned and shared by the connections, the {@link DeviceInfo} is only a
+ * view created on demand(the JSON format of the client info remains
+ * unchanged).
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -16,8 +25,22 @@ import io.transport.core.protocol.message.DeviceInfo;
  * @since
  */
 public class Client {
+
+	/**
+	 * Client of the channel(the per-connection state of the sharable
+	 * handlers).
+	 */
+	final public static AttributeKey<Client> KEY = AttributeKey.valueOf("transportClient");
+
+	/**
+	 * Shared handles of the appId/groupId/deviceType.
+	 */
+	final private static Interner<String> HANDLES = Interners.newWeakInterner();
+
 	private String appId;
-	private DeviceInfo deviceInfo = new DeviceInfo(); // 当前连接客户端设备信息
+	private String groupId;
+	private String deviceType;
+	private DeviceKey deviceKey; // 当前连接客户端设备ID
 	@JSONField(deserialize = false)
 	transient private SocketChannel channel; // TCP连接通道
 
@@ -34,6 +57,7 @@ public class Client {
 	}
 
 	public Client(String appId, DeviceInfo deviceInfo, SocketChannel channel) {
+		this.setAppId(appId);
 		this.setDeviceInfo(deviceInfo);
 		this.setChannel(channel);
 	}
@@ -43,16 +67,47 @@ public class Client {
 	}
 
 	public void setAppId(String appId) {
-		this.appId = appId;
+		this.appId = intern(appId);
 	}
 
+	/**
+	 * Get the device info(a new view of the client fields, the modification
+	 * of it is not applied to the client).
+	 * 
+	 * @return
+	 */
 	public DeviceInfo getDeviceInfo() {
-		return deviceInfo;
+		DeviceInfo info = new DeviceInfo(this.getDeviceId(), this.deviceType);
+		info.setGroupId(this.groupId);
+		return info;
 	}
 
 	public void setDeviceInfo(DeviceInfo deviceInfo) {
-		if (deviceInfo != null)
-			this.deviceInfo = deviceInfo;
+		if (deviceInfo != null) {
+			this.groupId = intern(deviceInfo.getGroupId());
+			this.deviceType = intern(deviceInfo.getDeviceType());
+			this.deviceKey = DeviceKey.of(deviceInfo.getDeviceId());
+		}
+	}
+
+	@JSONField(serialize = false)
+	public String getDeviceId() {
+		return this.deviceKey != null ? this.deviceKey.toString() : null;
+	}
+
+	@JSONField(serialize = false)
+	public String getGroupId() {
+		return groupId;
+	}
+
+	/**
+	 * Key of the local registry.
+	 * 
+	 * @return null if the client is not logged in.
+	 */
+	@JSONField(serialize = false)
+	public DeviceKey getDeviceKey() {
+		return deviceKey;
 	}
 
 	public SocketChannel getChannel() {
@@ -64,10 +119,37 @@ public class Client {
 			this.channel = channel;
 	}
 
+	/**
+	 * Estimated retained size of the client state(bytes, 64-bit JVM with
+	 * compressed oops, the shared handles and the channel are excluded).
+	 * 
+	 * @return
+	 */
+	public int estimatedSize() {
+		// Header(12) + 5 refs(20), 8 bytes aligned.
+		return DeviceKey.align(12 + 5 * 4) + (this.deviceKey != null ? this.deviceKey.estimatedSize() : 0);
+	}
+
 	public ChannelFuture write(Object msg) {
 		return this.channel.writeAndFlush(msg);
 	}
 
+	/**
+	 * Write the message, and flush only if necessary(e.g. write multiple
+	 * messages and then {@link #flush()} once).
+	 * 
+	 * @param msg
+	 * @param flush
+	 * @return
+	 */
+	public ChannelFuture write(Object msg, boolean flush) {
+		return flush ? this.channel.writeAndFlush(msg) : this.channel.write(msg);
+	}
+
+	public void flush() {
+		this.channel.flush();
+	}
+
 	public ChannelFuture close() {
 		return this.channel.close();
 	}
@@ -81,6 +163,10 @@ public class Client {
 		return this.asText();
 	}
 
+	private static String intern(String handle) {
+		return handle != null ? HANDLES.intern(handle) : null;
+	}
+
 	public static enum ClientType {
 		Android, iOS;
 
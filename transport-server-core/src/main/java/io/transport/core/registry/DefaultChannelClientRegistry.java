@@ -3,27 +3,45 @@ package io.transport.core.registry;
 import io.netty.channel.socket.SocketChannel;
 import io.transport.cluster.ActorService;
 import io.transport.common.cache.JedisService;
+import io.transport.common.cache.LuaScript;
 import io.transport.core.config.Configuration;
-import io.transport.core.protocol.message.DeviceInfo;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import com.alibaba.fastjson.JSON;
-import com.google.common.collect.Sets;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import redis.clients.jedis.JedisPubSub;
 
 /**
- * Client (terminal) socket connection channel registry
+ * Client (terminal) socket connection channel registry<br/>
+ * The local clients are keyed by the UTF-8 device id bytes(see
+ * {@link DeviceKey}), and indexed by the groupId, so the local members of a
+ * group are iterated without the Redis round-trip.<br/>
+ * The remote client lookups are cached by a bounded near cache, it is
+ * invalidated by the Redis pub/sub when a client is registered on any node.
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -32,9 +50,36 @@ import com.google.common.collect.Sets;
  */
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
-public class DefaultChannelClientRegistry implements ChannelRegistry {
+public class DefaultChannelClientRegistry implements ChannelRegistry, InitializingBean, DisposableBean {
 	final private static Logger logger = LoggerFactory.getLogger(DefaultChannelClientRegistry.class);
-	private Map<String, Client> channelRegistry;
+
+	/**
+	 * Remove the actor registry of the device only if it is owned by this
+	 * node(the device may have reconnected to another node).<br/>
+	 * Returns 1: removed, 0: not exist, -1: owned by another node.
+	 */
+	final private static LuaScript REMOVE_OWNED_ACTOR = new LuaScript("local owner = redis.call('GET', KEYS[1]) "
+			+ "if not owner then return 0 end " + "if owner == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+			+ "return -1");
+	/**
+	 * Save the client info and actor of the device, and publish the
+	 * invalidation of the client info(one round-trip, the keys are in the
+	 * same slot).
+	 */
+	final private static LuaScript REGISTER_DEVICE = new LuaScript(
+			"redis.call('MSET', KEYS[1], ARGV[1], KEYS[2], ARGV[2]) " + "redis.call('PUBLISH', ARGV[3], ARGV[4]) "
+					+ "return 1");
+	final private static long RESUBSCRIBE_DELAY_MS = 1000L;
+	/**
+	 * Stripes of the near cache invalidation sequences(power of 2).
+	 */
+	final private static int INVALIDATION_STRIPES = 1024;
+
+	private Map<DeviceKey, Client> channelRegistry;
+	/**
+	 * Local groupId to the clients index.
+	 */
+	final private Map<String, Set<Client>> groupIndex = new ConcurrentHashMap<>(16384, 0.75f);
 
 	@Resource
 	private Configuration conf;
@@ -43,6 +88,19 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 	@Resource
 	private ActorService actorService;
 
+	/**
+	 * Near cache of the remote client info(null if disabled), the absent
+	 * clients are cached too.
+	 */
+	private Cache<String, Optional<Client>> clientCache;
+	/**
+	 * Invalidation sequences of the near cache(striped by the deviceId), the
+	 * loaded value is discarded if an invalidation arrived during loading.
+	 */
+	final private AtomicLongArray invalidationSeqs = new AtomicLongArray(INVALIDATION_STRIPES);
+	private JedisPubSub invalidationSubscriber;
+	volatile private boolean running;
+
 	public DefaultChannelClientRegistry() {
 		synchronized (this) {
 			if (this.channelRegistry == null)
@@ -51,23 +109,54 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 	}
 
 	@Override
-	public Set<Client> getLocalClients(String groupId) {
-		Set<String> deviceIds = this.getAllDeviceIds(groupId);
-		Set<Client> clients = null;
-		if (deviceIds != null && !deviceIds.isEmpty()) {
-			clients = Sets.newLinkedHashSetWithExpectedSize(deviceIds.size());
-			for (String cId : deviceIds) {
-				Client c = this.getLocalClient(cId);
-				if (c != null)
-					clients.add(c);
+	public void afterPropertiesSet() throws Exception {
+		if (this.conf.getClientCacheMaxSize() <= 0)
+			return;
+
+		this.clientCache = CacheBuilder.newBuilder().maximumSize(this.conf.getClientCacheMaxSize())
+				.expireAfterWrite(this.conf.getClientCacheExpireSeconds(), TimeUnit.SECONDS).recordStats().build();
+		this.invalidationSubscriber = new JedisPubSub() {
+			@Override
+			public void onMessage(String channel, String deviceId) {
+				invalidateClient(deviceId);
 			}
-		}
-		return clients;
+
+			@Override
+			public void onSubscribe(String channel, int subscribedChannels) {
+				// The invalidations may be missed before(re)subscribed.
+				invalidateAllClients();
+			}
+		};
+		this.running = true;
+		Thread t = new Thread(() -> this.subscribeInvalidation(), "ClientCacheInvalidation");
+		t.setDaemon(true);
+		t.start();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		this.running = false;
+		if (this.invalidationSubscriber != null && this.invalidationSubscriber.isSubscribed())
+			this.invalidationSubscriber.unsubscribe();
+	}
+
+	@Override
+	public Set<Client> getLocalClients(String groupId) {
+		if (groupId == null)
+			return null;
+		Set<Client> clients = this.groupIndex.get(groupId);
+		return clients != null ? Collections.unmodifiableSet(clients) : null;
+	}
+
+	@Override
+	public Collection<Client> getLocalClients() {
+		return Collections.unmodifiableCollection(this.channelRegistry.values());
 	}
 
 	@Override
 	public Client getLocalClient(String deviceId) {
-		return this.channelRegistry.get(String.valueOf(deviceId));
+		DeviceKey key = DeviceKey.of(deviceId);
+		return key != null ? this.channelRegistry.get(key) : null;
 	}
 
 	@Override
@@ -86,9 +175,13 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 
 	@Override
 	public boolean localContains(String deviceId) {
-		if (StringUtils.isEmpty(deviceId))
-			return false;
-		return this.channelRegistry.containsKey(deviceId);
+		DeviceKey key = DeviceKey.of(deviceId);
+		return this.localContains(key);
+	}
+
+	@Override
+	public boolean localContains(DeviceKey deviceKey) {
+		return deviceKey != null && this.channelRegistry.containsKey(deviceKey);
 	}
 
 	@Override
@@ -97,27 +190,47 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 	}
 
 	@Override
-	public Client getClient(String deviceId) {
-		String key0 = conf.getCtlDeviceIdClientInfoPKey() + deviceId;
-		return JSON.parseObject(this.jedisService.get(key0), Client.class);
+	public Client getClient(final String deviceId) {
+		if (this.clientCache == null || deviceId == null)
+			return this.loadClient(deviceId);
+
+		Optional<Client> cached = this.clientCache.getIfPresent(deviceId);
+		if (cached != null)
+			return cached.orNull();
+
+		// The in-flight load is not cancelled by the invalidation, so the
+		// sequence is checked after the loaded value is cached(the
+		// invalidation increases the sequence before invalidating the cache).
+		int stripe = invalidationStripe(deviceId);
+		long seq = this.invalidationSeqs.get(stripe);
+		Client client = this.loadClient(deviceId);
+		this.clientCache.put(deviceId, Optional.fromNullable(client));
+		if (this.invalidationSeqs.get(stripe) != seq)
+			this.clientCache.invalidate(deviceId); // It may be stale.
+		return client;
+	}
+
+	@Override
+	public CacheStats getClientCacheStats() {
+		return this.clientCache != null ? this.clientCache.stats() : null;
 	}
 
 	@Override
 	public boolean addRegistry(String appId, Client client) {
-		if (client == null || StringUtils.isEmpty(client.getDeviceInfo().getDeviceId()))
+		if (client == null || client.getDeviceKey() == null)
 			return false;
 
-		DeviceInfo info = client.getDeviceInfo();
-		String groupId = info.getGroupId();
-		String deviceId = info.getDeviceId();
-		if (this.localContains(deviceId)) {
+		String groupId = client.getGroupId();
+		String deviceId = client.getDeviceId();
+		if (this.channelRegistry.containsKey(client.getDeviceKey())) {
 			logger.warn("Overlay Client, deviceId={}", deviceId);
 			// Ignore process, because repository does not handle business
 			// logic.
 		}
 
+		// One round-trip for each slot(appId, groupId, deviceId).
 		// 1.1 Save appId-groupIds information.
-		if (!StringUtils.isEmpty(appId)) {
+		if (!StringUtils.isEmpty(appId) && !StringUtils.isEmpty(groupId)) {
 			String key0 = conf.getCtlAppIdGroupsPKey() + appId;
 			this.jedisService.setSetAdd(key0, groupId);
 		}
@@ -126,16 +239,30 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 			String key0 = conf.getCtlGroupIdDevicesPKey() + groupId;
 			this.jedisService.setSetAdd(key0, deviceId);
 		}
-		// 1.3 Save deviceId(client) information.
-		if (!StringUtils.isEmpty(deviceId)) {
-			String key0 = conf.getCtlDeviceIdClientInfoPKey() + deviceId;
-			this.jedisService.set(key0, JSON.toJSONString(client), 0);
-		}
 
-		// 2.1 Create and save actor(Using deviceId as actorName.).
-		this.actorService.create(deviceId);
+		// 2.1 Create actor(Using deviceId as actorName.), and save it with
+		// the deviceId(client) information.
+		// The near caches of all nodes are invalidated.
+		Object actor = this.actorService.create(deviceId, false);
+		String clientKey = conf.getDeviceIdClientInfoKey(deviceId);
+		String actorKey = conf.getDeviceIdActorKey(deviceId);
+		String clientJson = JSON.toJSONString(client);
+		String actorJson = JSON.toJSONString(actor);
+		if (conf.isCtlHashTag()) // The same slot.
+			this.jedisService.evalScript(REGISTER_DEVICE, Arrays.asList(clientKey, actorKey),
+					Arrays.asList(clientJson, actorJson, conf.getClientCacheInvalidationChannel(), deviceId));
+		else {
+			this.jedisService.set(clientKey, clientJson, 0);
+			this.jedisService.set(actorKey, actorJson, 0);
+			this.jedisService.publish(conf.getClientCacheInvalidationChannel(), deviceId);
+		}
+		this.invalidateClient(deviceId);
 
-		return (this.channelRegistry.put(deviceId, client) != null) ? true : false;
+		Client old = this.channelRegistry.put(client.getDeviceKey(), client);
+		if (old != null && old != client)
+			this.unindex(old);
+		this.index(client);
+		return (old != null) ? true : false;
 	}
 
 	@Override
@@ -146,29 +273,129 @@ public class DefaultChannelClientRegistry implements ChannelRegistry {
 		// 1.0 Get client by deviceId.
 		Client cli = this.getLocalClient(deviceId);
 		// 1.1 Remove deviceId channel.
-		if (cli != null) {
+		if (cli != null)
 			cli.close();
-			// 1.1.1 Get device info by deviceId.
-			DeviceInfo info = cli.getDeviceInfo();
-
-			// 1.2 Remove redis groupId sub deviceId.
-			if (info != null && info.getGroupId() != null) {
-				String key0 = conf.getCtlGroupIdDevicesPKey() + info.getGroupId();
-				// Remove groupId-deviceIds mapping.
-				Long r = this.jedisService.delSetMember(key0, info.getDeviceId());
-				if (r == null || r == 0)
-					logger.error("Remove groupId={}, deviceId={} failed.", info.getGroupId(), deviceId);
-				else if (logger.isInfoEnabled())
-					logger.info("Remove groupId={}, deviceId={} completed.", info.getGroupId(), deviceId);
-			}
-		} else
+		else
 			logger.warn("Remove deviceId={} failed, client does not exist.", deviceId);
+		Client removed = channelRegistry.remove(DeviceKey.of(deviceId));
+		if (removed != null)
+			this.unindex(removed);
+
+		// 2.1 Remove actor(only if it is owned by this node, one round-trip).
+		List<String> keys = Collections.singletonList(conf.getDeviceIdActorKey(deviceId));
+		List<String> args = Collections.singletonList(JSON.toJSONString(this.actorService.localActor(deviceId)));
+		Object owned = this.jedisService.evalScript(REMOVE_OWNED_ACTOR, keys, args);
+		if (owned instanceof Long && (Long) owned < 0) {
+			// The device has reconnected to another node, its registration
+			// must be kept.
+			if (logger.isInfoEnabled())
+				logger.info("Remove deviceId={} skipped, it is registered by another node.", deviceId);
+			return removed == null ? false : true;
+		}
+
+		// 2.2 Remove redis groupId sub deviceId.
+		String groupId = cli != null ? cli.getGroupId() : null;
+		if (groupId != null) {
+			String key0 = conf.getCtlGroupIdDevicesPKey() + groupId;
+			// Remove groupId-deviceIds mapping.
+			Long r = this.jedisService.delSetMember(key0, deviceId);
+			if (r == null || r == 0)
+				logger.error("Remove groupId={}, deviceId={} failed.", groupId, deviceId);
+			else if (logger.isInfoEnabled())
+				logger.info("Remove groupId={}, deviceId={} completed.", groupId, deviceId);
+		}
+		return removed == null ? false : true;
+	}
+
+	/**
+	 * Load the client info from Redis.
+	 * 
+	 * @param deviceId
+	 * @return
+	 */
+	private Client loadClient(String deviceId) {
+		return JSON.parseObject(this.jedisService.get(conf.getDeviceIdClientInfoKey(deviceId)), Client.class);
+	}
+
+	/**
+	 * Invalidate the near cache of the client.
+	 * 
+	 * @param deviceId
+	 */
+	private void invalidateClient(String deviceId) {
+		if (this.clientCache != null && deviceId != null) {
+			this.invalidationSeqs.incrementAndGet(invalidationStripe(deviceId));
+			this.clientCache.invalidate(deviceId);
+		}
+	}
+
+	/**
+	 * Invalidate the near cache of all clients.
+	 */
+	private void invalidateAllClients() {
+		if (this.clientCache != null) {
+			for (int i = 0; i < INVALIDATION_STRIPES; i++)
+				this.invalidationSeqs.incrementAndGet(i);
+			this.clientCache.invalidateAll();
+		}
+	}
+
+	private static int invalidationStripe(String deviceId) {
+		int h = deviceId.hashCode();
+		return (h ^ (h >>> 16)) & (INVALIDATION_STRIPES - 1);
+	}
 
-		// 2.1 Remove actor.
-		String actorName = this.conf.getCtlDeviceIdActorPkey() + deviceId;
-		this.actorService.destroy(actorName);
+	/**
+	 * Subscribe the invalidations(resubscribe if the connection is broken).
+	 */
+	private void subscribeInvalidation() {
+		while (this.running) {
+			try {
+				this.jedisService.subscribe(this.invalidationSubscriber, conf.getClientCacheInvalidationChannel());
+			} catch (Throwable t) {
+				if (!this.running)
+					break;
+				logger.warn("Client cache invalidation subscription broken, resubscribe later. {}", t.getMessage());
+				this.invalidateAllClients();
+				try {
+					Thread.sleep(RESUBSCRIBE_DELAY_MS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+	}
 
-		return channelRegistry.remove(deviceId) == null ? false : true;
+	/**
+	 * Add the client to the local group index.
+	 * 
+	 * @param client
+	 */
+	private void index(final Client client) {
+		if (client.getGroupId() != null) {
+			this.groupIndex.compute(client.getGroupId(), (groupId, clients) -> {
+				if (clients == null)
+					clients = ConcurrentHashMap.newKeySet();
+				clients.add(client);
+				return clients;
+			});
+		}
+	}
+
+	/**
+	 * Remove the client from the local group index(the empty group is
+	 * removed).
+	 * 
+	 * @param client
+	 */
+	private void unindex(final Client client) {
+		if (client.getGroupId() != null) {
+			this.groupIndex.computeIfPresent(client.getGroupId(), (groupId, clients) -> {
+				clients.remove(client);
+				return clients.isEmpty() ? null : clients;
+			});
+		}
 	}
 
 	@Override
@@ -0,0 +1,76 @@
+package io.transport.core.registry;
+
+import java.util.Arrays;
+
+import io.netty.util.CharsetUtil;
+
+/**
+ * Device id key of the local registry.<br/>
+ * The UTF-8 bytes(variable-length, not padded) are kept instead of the
+ * String(the char[] of the String is twice as large), and the hash is
+ * computed once.
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月28日
+ * @since
+ */
+final public class DeviceKey {
+
+	final private byte[] bytes;
+	final private int hash;
+
+	private DeviceKey(byte[] bytes) {
+		this.bytes = bytes;
+		this.hash = Arrays.hashCode(bytes);
+	}
+
+	/**
+	 * New device key.
+	 * 
+	 * @param deviceId
+	 * @return null if the device id is empty.
+	 */
+	public static DeviceKey of(String deviceId) {
+		if (deviceId == null || deviceId.isEmpty())
+			return null;
+		return new DeviceKey(deviceId.getBytes(CharsetUtil.UTF_8));
+	}
+
+	/**
+	 * Estimated retained size of the key(bytes, 64-bit JVM with compressed
+	 * oops).
+	 * 
+	 * @return
+	 */
+	public int estimatedSize() {
+		// Header(12) + ref(4) + int(4), array header(16) + data, 8 bytes
+		// aligned.
+		return 24 + align(16 + this.bytes.length);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof DeviceKey))
+			return false;
+		DeviceKey other = (DeviceKey) obj;
+		return this.hash == other.hash && Arrays.equals(this.bytes, other.bytes);
+	}
+
+	@Override
+	public String toString() {
+		return new String(this.bytes, CharsetUtil.UTF_8);
+	}
+
+	static int align(int size) {
+		return (size + 7) & ~7;
+	}
+
+}
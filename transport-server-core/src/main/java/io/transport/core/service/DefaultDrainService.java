@@ -0,0 +1,284 @@
+package io.transport.core.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Service;
+
+import com.google.common.net.HostAndPort;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.transport.cluster.ClusterService;
+import io.transport.common.bean.NodeInfo;
+import io.transport.core.DrainService;
+import io.transport.core.EventLoopTopology;
+import io.transport.core.NettyChannelServerListener;
+import io.transport.core.config.Configuration;
+import io.transport.core.protocol.message.internal.RedirectMessage;
+import io.transport.core.registry.ChannelRegistry;
+import io.transport.core.registry.Client;
+import io.transport.core.utils.TransportProcessors;
+import io.transport.mq.MessageService;
+
+/**
+ * Graceful drain Service implement(rolling restart).<br/>
+ * 1. Stop accepting, and leave the cluster(the node is no longer returned
+ * to the clients as an active node).<br/>
+ * 2. Redirect the connected clients to the other active nodes in waves(the
+ * preferred node of each client is rotated), the redirected connections
+ * are closed after the close delay, instead of dropping all connections at
+ * the same moment(thundering-herd reconnect onto the remaining nodes).<br/>
+ * 3. Wait for the in-flight deliveries: the pushes of the actors and the
+ * acks are still delivered until the connections are closed, and then the
+ * business executors and the MQ producer are flushed.<br/>
+ * On shutdown, the drain is completed before the actor system and the event
+ * loops are shutdown(see {@link ContextClosedEvent}).
+ * 
+ * @author Wangl.sir <983708408@qq.com>
+ * @version v1.0
+ * @date 2018年5月23日
+ * @since
+ */
+@Service
+public class DefaultDrainService implements DrainService, ApplicationListener<ContextClosedEvent> {
+	final private static Logger logger = LoggerFactory.getLogger(DefaultDrainService.class);
+
+	final private static long POLL_INTERVAL_MS = 100L;
+
+	final private AtomicBoolean draining = new AtomicBoolean(false);
+	final private CountDownLatch drained = new CountDownLatch(1);
+
+	@Autowired
+	private Configuration config;
+	@Autowired
+	private NettyChannelServerListener listener;
+	@Autowired
+	private ChannelRegistry registry;
+	@Autowired
+	private ClusterService clusterService;
+	@Autowired(required = false)
+	private MessageService messageService;
+
+	@Override
+	public boolean drain() {
+		if (!this.draining.compareAndSet(false, true)) {
+			logger.warn("The local node is already draining.");
+			return false;
+		}
+		Thread t = new Thread(() -> this.doDrain(), "TransportDrainer");
+		t.setDaemon(true);
+		t.start();
+		return true;
+	}
+
+	@Override
+	public boolean isDraining() {
+		return this.draining.get();
+	}
+
+	@Override
+	public void onApplicationEvent(ContextClosedEvent event) {
+		if (!this.config.isDrainOnShutdown())
+			return;
+
+		this.drain();
+		// Block the shutdown until drained.
+		try {
+			if (!this.drained.await(this.config.getDrainTimeoutSeconds() + 5, TimeUnit.SECONDS))
+				logger.warn("Drain timeout, shutdown anyway. remaining clients={}", this.registry.localSize());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void doDrain() {
+		long begin = System.currentTimeMillis();
+		long deadline = begin + TimeUnit.SECONDS.toMillis(this.config.getDrainTimeoutSeconds());
+		try {
+			if (logger.isInfoEnabled())
+				logger.info("Draining the local node. clients={}", this.registry.localSize());
+
+			// 1.1 Stop accepting.
+			this.listener.stopAccept();
+			// 1.2 Leave the cluster.
+			this.leaving();
+
+			// 2.1 Redirect the clients in waves.
+			this.redirectWaves(deadline);
+
+			// 3.1 Wait for the in-flight deliveries.
+			this.awaitInflight(deadline);
+
+			if (logger.isInfoEnabled())
+				logger.info("Drained the local node, cost {}ms. remaining clients={}",
+						(System.currentTimeMillis() - begin), this.registry.localSize());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Drain interrupted.");
+		} catch (Throwable t) {
+			logger.error("Drain failed.", t);
+		} finally {
+			this.drained.countDown();
+		}
+	}
+
+	/**
+	 * Update the local node to inactive state.
+	 */
+	private void leaving() {
+		Map<String, NodeInfo> nodes = this.clusterService.clusterNodes(false, null);
+		if (nodes != null) {
+			for (NodeInfo node : nodes.values()) {
+				if (this.isLocalNode(node))
+					this.clusterService.leaving(HostAndPort.fromParts(node.getHost(), node.getActorPort()));
+			}
+		}
+	}
+
+	/**
+	 * Redirect the local clients in waves, the clients connected during the
+	 * drain(accepted before stopping) are also redirected. Skipped if there
+	 * are no active nodes to redirect to(the clients are kept connected).
+	 * 
+	 * @param deadline
+	 * @throws InterruptedException
+	 */
+	private void redirectWaves(long deadline) throws InterruptedException {
+		int waveSize = Math.max(1, this.config.getDrainWaveSize());
+		Set<Client> redirected = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Client> pending = new ArrayDeque<>(this.registry.getLocalClients());
+		int seq = 0;
+		while (System.currentTimeMillis() < deadline) {
+			// Rescan the stragglers.
+			if (pending.isEmpty()) {
+				for (Client c : this.registry.getLocalClients()) {
+					if (!redirected.contains(c))
+						pending.add(c);
+				}
+				if (pending.isEmpty())
+					break;
+			}
+
+			// The active nodes may be changed between the waves.
+			List<NodeInfo> nodes = this.activeNodes();
+			if (nodes.isEmpty()) {
+				logger.warn("No active nodes to redirect to, skip the redirect. remaining clients={}",
+						this.registry.localSize());
+				break;
+			}
+			int count = 0;
+			Client c;
+			while (count < waveSize && (c = pending.poll()) != null) {
+				if (redirected.add(c) && this.redirect(c, nodes, seq++))
+					++count;
+			}
+			if (logger.isInfoEnabled())
+				logger.info("Redirected {} clients to {} nodes, pending={}", count, nodes.size(), pending.size());
+
+			Thread.sleep(Math.max(0, this.config.getDrainWaveIntervalMs()));
+		}
+	}
+
+	/**
+	 * Send the redirect message, and then close the connection after the
+	 * close delay.
+	 * 
+	 * @param client
+	 * @param nodes
+	 * @param seq
+	 *            Rotation of the preferred node.
+	 * @return
+	 */
+	private boolean redirect(Client client, List<NodeInfo> nodes, int seq) {
+		final Channel ch = client.getChannel();
+		if (ch == null || !ch.isActive())
+			return false;
+
+		boolean isWsCh = TransportProcessors.isWSChannel(ch);
+		List<String> haps = new ArrayList<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			NodeInfo node = nodes.get((seq + i) % nodes.size());
+			haps.add(node.getHost() + ":" + (isWsCh ? node.getWsPort() : node.getRpcPort()));
+		}
+		ChannelFuture cf = TransportProcessors.sent(client, new RedirectMessage(haps));
+		if (cf != null) {
+			cf.addListener((ChannelFuture f) -> {
+				if (!f.isSuccess())
+					logger.warn("Failed to redirect client. client=" + client.asText(), f.cause());
+			});
+		}
+		ch.eventLoop().schedule(() -> {
+			ch.close();
+		}, Math.max(0, this.config.getDrainCloseDelayMs()), TimeUnit.MILLISECONDS);
+		return true;
+	}
+
+	/**
+	 * Wait until the redirected connections are closed and the business
+	 * executors are idle, and then flush the MQ producer.
+	 * 
+	 * @param deadline
+	 * @throws InterruptedException
+	 */
+	private void awaitInflight(long deadline) throws InterruptedException {
+		while (System.currentTimeMillis() < deadline
+				&& (this.registry.localSize() > 0 || this.pendingBusinessTasks() > 0))
+			Thread.sleep(POLL_INTERVAL_MS);
+
+		if (this.messageService != null)
+			this.messageService.flush();
+	}
+
+	private int pendingBusinessTasks() {
+		int pending = 0;
+		EventLoopTopology topology = this.listener.getTopology();
+		if (topology != null) {
+			List<Integer> tasks = topology.pendingTasks().get("business");
+			if (tasks != null) {
+				for (Integer n : tasks)
+					pending += n;
+			}
+		}
+		return pending;
+	}
+
+	/**
+	 * Active nodes of the cluster(excluding the local node).
+	 * 
+	 * @return
+	 */
+	private List<NodeInfo> activeNodes() {
+		List<NodeInfo> actives = new ArrayList<>();
+		Map<String, NodeInfo> nodes = this.clusterService.clusterNodes(true, null);
+		if (nodes != null) {
+			for (NodeInfo node : nodes.values()) {
+				if (!this.isLocalNode(node))
+					actives.add(node);
+			}
+		}
+		return actives;
+	}
+
+	private boolean isLocalNode(NodeInfo node) {
+		return StringUtils.equals(node.getHost(), this.config.getHostname())
+				&& node.getRpcPort() == this.config.getRpcConfig().getPort()
+				&& node.getWsPort() == this.config.getWsConfig().getPort();
+	}
+
+}
@@ -2,6 +2,9 @@ package io.transport.core.service;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
@@ -12,6 +15,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ReflectionUtils;
 
+import com.google.common.cache.CacheStats;
+
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.concurrent.DefaultPromise;
@@ -22,7 +27,14 @@ import io.transport.common.bean.ChannelMetricsInfo;
 import io.transport.common.bean.ChannelMetricsInfo.EnvInfo;
 import io.transport.common.bean.ChannelMetricsInfo.RuntimeInfo;
 import io.transport.common.utils.exec.SimpleCommand;
+import io.transport.core.EventLoopTopology;
 import io.transport.core.MonitorService;
+import io.transport.core.NettyChannelServerListener;
+import io.transport.core.protocol.handler.OutboundQueueHandler;
+import io.transport.core.protocol.handler.ssl.SslHandshakeMetricsHandler;
+import io.transport.core.protocol.handler.ws.WSCompressionThresholdHandler;
+import io.transport.core.registry.ChannelRegistry;
+import io.transport.core.registry.Client;
 
 /**
  * Netty核心服务监控Service实现
@@ -38,6 +50,10 @@ public class DefaultMonitorService implements MonitorService {
 
 	@Autowired
 	private Environment env;
+	@Autowired
+	private NettyChannelServerListener listener;
+	@Autowired
+	private ChannelRegistry registry;
 
 	@Override
 	public ChannelMetricsInfo metricsInfo() {
@@ -91,6 +107,36 @@ public class DefaultMonitorService implements MonitorService {
 		env.setJavaVersion(System.getProperty("java.version"));
 	}
 
+	/**
+	 * Fill the per-connection memory footprint.<br/>
+	 * 1. The estimated size of the compact client state(average of the local
+	 * clients).<br/>
+	 * 2. The live heap(used after the last GC of the heap pools) divided by
+	 * the local connections, it is the measured upper bound of the heap of
+	 * each connection(including the channel, pipeline and buffers).
+	 * 
+	 * @param rt
+	 */
+	private void fillConnectionFootprint(RuntimeInfo rt) {
+		int connections = 0;
+		long stateBytes = 0;
+		for (Client client : this.registry.getLocalClients()) {
+			stateBytes += client.estimatedSize();
+			++connections;
+		}
+		rt.setLocalConnections(connections + "");
+		if (connections > 0) {
+			rt.setConnectionStateBytes((stateBytes / connections) + "/B");
+			long liveHeap = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+				if (usage != null)
+					liveHeap += usage.getUsed();
+			}
+			rt.setHeapBytesPerConnection((liveHeap / connections) + "/B");
+		}
+	}
+
 	/**
 	 * Get the fill runtime parameters
 	 * 
@@ -115,6 +161,33 @@ public class DefaultMonitorService implements MonitorService {
 		rt.setPortWS(env.getProperty("core.websocket.port"));
 		rt.setPortRPC(env.getProperty("core.rpc.port"));
 		rt.setPortActor(env.getProperty("akka.remote.port"));
+		// Event loops info.
+		EventLoopTopology topology = this.listener.getTopology();
+		if (topology != null)
+			rt.setEventLoopPendingTasks(topology.pendingTasks());
+		// Outbound backpressure info.
+		rt.setOutboundDrops(OutboundQueueHandler.getDrops() + "");
+		rt.setOutboundStalls(OutboundQueueHandler.getStalls() + "");
+		rt.setOutboundDisconnects(OutboundQueueHandler.getDisconnects() + "");
+		// TLS handshake info.
+		rt.setSslHandshakes(SslHandshakeMetricsHandler.getHandshakes() + "");
+		rt.setSslResumedHandshakes(SslHandshakeMetricsHandler.getResumed() + "");
+		rt.setSslHandshakeFailures(SslHandshakeMetricsHandler.getFailures() + "");
+		rt.setSslHandshakeAvgLatency(SslHandshakeMetricsHandler.getAvgLatencyMicros() + "/us");
+		rt.setSslHandshakeAvgCpu(SslHandshakeMetricsHandler.getAvgCpuMicros() + "/us");
+		// WebSocket compression info.
+		rt.setWsCompressedConnections(WSCompressionThresholdHandler.getConnections() + "");
+		rt.setWsCompressionMemory((WSCompressionThresholdHandler.getMemory() / 1024) + "/KB");
+		rt.setWsUncompressedFrames(WSCompressionThresholdHandler.getUncompressed() + "");
+		// Connection footprint info.
+		this.fillConnectionFootprint(rt);
+		// Client near cache info.
+		CacheStats cacheStats = this.registry.getClientCacheStats();
+		if (cacheStats != null) {
+			rt.setClientCacheRequests(cacheStats.requestCount() + "");
+			rt.setClientCacheHitRate(String.format("%.4f", cacheStats.hitRate()));
+			rt.setClientCacheEvictions(cacheStats.evictionCount() + "");
+		}
 		if (!Boolean.valueOf(info.getEnvInfo().getIsWindows())) {
 			rt.setSysOpenfiles(SimpleCommand.exec("cat /proc/sys/fs/file-max"));
 			rt.setProcessOpenfiles(SimpleCommand.exec("lsof -p " + rt.getProcess() + "|wc –l"));
@@ -1,11 +1,18 @@
 package io.transport.core.utils;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.ByteProcessor;
 import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.transport.common.utils.exception.TransportException;
+import io.transport.core.exception.TransportDDOSAmbiguousException;
 
 /**
  * Byte buffer related operating tools.
@@ -17,6 +24,23 @@ import io.transport.common.utils.exception.TransportException;
  */
 public class ByteBufUtils {
 
+	/**
+	 * Deflater/Inflater of the current thread(they hold native memory, so
+	 * they are reused instead of created for each message).
+	 */
+	final private static FastThreadLocal<Deflater> DEFLATERS = new FastThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_SPEED);
+		}
+	};
+	final private static FastThreadLocal<Inflater> INFLATERS = new FastThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
 	/**
 	 * Turn a string into a network byte buffering content
 	 * 
@@ -50,6 +74,247 @@ public class ByteBufUtils {
 		}
 	}
 
+	/**
+	 * Read the fixed length field into a string, see
+	 * {@link #getFixedString(ByteBuf, int, int)}.
+	 * 
+	 * @param buf
+	 * @param fixedLen
+	 *            Fixed length of the field(including zero padding)
+	 * @return
+	 */
+	public static String readFixedString(ByteBuf buf, int fixedLen) {
+		String s = getFixedString(buf, buf.readerIndex(), fixedLen);
+		buf.skipBytes(fixedLen);
+		return s;
+	}
+
+	/**
+	 * Decoding the fixed length field at the specified index into a string
+	 * (does not modify readerIndex).<br/>
+	 * Directly decode from the source buffer without scratch buffer copying,
+	 * and the trailing zero padding is trimmed.
+	 * 
+	 * @param buf
+	 * @param index
+	 *            Starting index of the field
+	 * @param fixedLen
+	 *            Fixed length of the field(including zero padding)
+	 * @return
+	 */
+	public static String getFixedString(ByteBuf buf, int index, int fixedLen) {
+		if (fixedLen <= 0)
+			return "";
+		int nulIndex = buf.forEachByte(index, fixedLen, ByteProcessor.FIND_NUL);
+		int len = (nulIndex < 0) ? fixedLen : (nulIndex - index);
+		return (len == 0) ? "" : buf.toString(index, len, CharsetUtil.UTF_8);
+	}
+
+	/**
+	 * Calculate the UTF-8 encoded length of the string(consistent with
+	 * {@link #writeUtf8(ByteBuf, CharSequence)}, the unpaired surrogate is
+	 * encoded as '?').
+	 * 
+	 * @param seq
+	 * @return
+	 */
+	public static int utf8Length(CharSequence seq) {
+		if (seq == null)
+			return 0;
+		int len = seq.length(), utf8Len = 0;
+		for (int i = 0; i < len; i++) {
+			char c = seq.charAt(i);
+			if (c < 0x80)
+				utf8Len += 1;
+			else if (c < 0x800)
+				utf8Len += 2;
+			else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(seq.charAt(i + 1))) {
+					utf8Len += 4;
+					++i;
+				} else
+					utf8Len += 1;
+			} else
+				utf8Len += 3;
+		}
+		return utf8Len;
+	}
+
+	/**
+	 * Write the string to the buffer in UTF-8 encoding.<br/>
+	 * Note: {@link ByteBuf#writeCharSequence(CharSequence, java.nio.charset.Charset)} of UTF-8
+	 * will ensure writable of the maximum bytes(3 times the length), which
+	 * will cause the exactly allocated buffer to expand, so the ASCII string
+	 * is written with US-ASCII, otherwise it is encoded directly.
+	 * 
+	 * @param out
+	 * @param seq
+	 * @return Number of bytes written
+	 */
+	public static int writeUtf8(ByteBuf out, CharSequence seq) {
+		if (seq == null)
+			return 0;
+		int len = seq.length(), utf8Len = utf8Length(seq);
+		if (utf8Len == len)
+			return out.writeCharSequence(seq, CharsetUtil.US_ASCII);
+
+		for (int i = 0; i < len; i++) {
+			char c = seq.charAt(i);
+			if (c < 0x80)
+				out.writeByte(c);
+			else if (c < 0x800) {
+				out.writeByte(0xc0 | (c >> 6));
+				out.writeByte(0x80 | (c & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(seq.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+					out.writeByte(0xf0 | (codePoint >> 18));
+					out.writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+					out.writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+					out.writeByte(0x80 | (codePoint & 0x3f));
+				} else
+					out.writeByte('?');
+			} else {
+				out.writeByte(0xe0 | (c >> 12));
+				out.writeByte(0x80 | ((c >> 6) & 0x3f));
+				out.writeByte(0x80 | (c & 0x3f));
+			}
+		}
+		return utf8Len;
+	}
+
+	/**
+	 * Write the fixed length string field to the buffer directly, and the
+	 * remaining is filled with zero padding.
+	 * 
+	 * @param out
+	 * @param seq
+	 * @param fixedLen
+	 */
+	public static void writeFixedString(ByteBuf out, CharSequence seq, int fixedLen) {
+		int written = writeUtf8(out, seq);
+		if (written > fixedLen)
+			throw new TransportException("The string is over long and can only be " + fixedLen + " bytes.");
+		out.writeZero(fixedLen - written);
+	}
+
+	/**
+	 * Compress the string in UTF-8 encoding(deflate).
+	 * 
+	 * @param seq
+	 * @return The compressed bytes, or null if it can not be made smaller.
+	 */
+	public static byte[] deflate(String seq) {
+		byte[] src = toBytes(seq);
+		Deflater deflater = DEFLATERS.get();
+		try {
+			deflater.setInput(src);
+			deflater.finish();
+			byte[] dst = new byte[src.length];
+			int len = 0;
+			while (!deflater.finished() && len < dst.length)
+				len += deflater.deflate(dst, len, dst.length - len);
+			return deflater.finished() ? Arrays.copyOf(dst, len) : null;
+		} finally {
+			deflater.reset();
+		}
+	}
+
+	/**
+	 * Decompress the bytes at the specified index into a UTF-8 string(does
+	 * not modify readerIndex).
+	 * 
+	 * @param buf
+	 * @param index
+	 * @param length
+	 *            Compressed length
+	 * @param maxLength
+	 *            Maximum decompressed length, to prevent decompression bomb.
+	 * @return
+	 */
+	public static String inflate(ByteBuf buf, int index, int length, int maxLength) {
+		byte[] src;
+		int srcOffset = 0;
+		if (buf.hasArray()) {
+			src = buf.array();
+			srcOffset = buf.arrayOffset() + index;
+		} else {
+			src = new byte[length];
+			buf.getBytes(index, src);
+		}
+
+		Inflater inflater = INFLATERS.get();
+		try {
+			inflater.setInput(src, srcOffset, length);
+			byte[] dst = new byte[Math.min(Math.max(length * 4, 64), maxLength)];
+			int len = 0;
+			while (!inflater.finished()) {
+				if (len == dst.length) {
+					if (len >= maxLength)
+						throw new TransportDDOSAmbiguousException(
+								"Suspected DDoS attack packets, decompressed length exceeds the limit of " + maxLength);
+					dst = Arrays.copyOf(dst, Math.min(len * 2, maxLength));
+				}
+				int n = inflater.inflate(dst, len, dst.length - len);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new TransportException("Protocol error, truncated compressed data.");
+				len += n;
+			}
+			return new String(dst, 0, len, CharsetUtil.UTF_8);
+		} catch (DataFormatException e) {
+			throw new TransportException("Protocol error, illegal compressed data.", e);
+		} finally {
+			inflater.reset();
+		}
+	}
+
+	/**
+	 * Read the unsigned variable-length integer(base 128 varint, up to 5
+	 * bytes).
+	 * 
+	 * @param in
+	 * @return
+	 */
+	public static int readVarInt(ByteBuf in) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new TransportException("Protocol error, malformed varint.");
+	}
+
+	/**
+	 * Write the unsigned variable-length integer(base 128 varint).
+	 * 
+	 * @param out
+	 * @param value
+	 */
+	public static void writeVarInt(ByteBuf out, int value) {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Calculate the encoded length of the variable-length integer.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	public static int varIntLength(int value) {
+		int len = 1;
+		while ((value & ~0x7f) != 0) {
+			value >>>= 7;
+			++len;
+		}
+		return len;
+	}
+
 	/**
 	 * Convert ByteBuf to designated byte[], note that it is not secure and
 	 * requires external release.
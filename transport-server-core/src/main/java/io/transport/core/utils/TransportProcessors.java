@@ -1,18 +1,26 @@
 package io.transport.core.utils;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.alibaba.fastjson.JSON;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
 import io.transport.common.SpringContextHolder;
 import io.transport.core.exception.TransportOfflineException;
+import io.transport.core.protocol.codec.TransportMessageEncoder;
+import io.transport.core.protocol.handler.ws.BinaryWSFrameCodec;
+import io.transport.core.protocol.message.Message;
 import io.transport.core.protocol.message.MsgType;
+import io.transport.core.protocol.message.WireFormat;
 import io.transport.core.protocol.message.internal.TransportMessage;
 import io.transport.core.registry.ChannelRegistry;
 import io.transport.core.registry.Client;
@@ -54,7 +62,13 @@ public class TransportProcessors {
 	}
 
 	/**
-	 * Sending messages to multiple channels in group.channel
+	 * Sending messages to multiple channels in group.channel<br/>
+	 * The message is serialized once per wire format(JSON text frame for
+	 * the WebSocket text mode, or the encoded buffer for each negotiated
+	 * wire format), and the retained duplicates are written to each
+	 * channel.<br/>
+	 * Note: The message is shared by multiple channels, so it must not be a
+	 * pooled instance(see {@link Message#release()}).
 	 * 
 	 * @param toGroupId
 	 *            to device group id.
@@ -62,14 +76,54 @@ public class TransportProcessors {
 	 *            Push message object.
 	 */
 	public static void sentGroupMsg(String toGroupId, Object msg) {
-		// 1.1 Get the local channel client list.
+		// 1.1 Get the local channel client list(the local group index, no
+		// Redis round-trip).
 		Collection<Client> clients = getRepository().getLocalClients(toGroupId);
 		if (clients == null || clients.isEmpty())
 			throw new TransportOfflineException("'" + toGroupId + "' without online devices.");
 
-		// 1.2 Loop sent.
-		for (Client c : clients)
-			sent(c, msg);
+		if (!(msg instanceof Message)) {
+			for (Client c : clients)
+				sent(c, msg);
+			return;
+		}
+
+		// 1.2 Encode once, write many.
+		TextWebSocketFrame textFrame = null;
+		Map<WireFormat, ByteBuf> encodeds = new HashMap<>(4);
+		try {
+			for (Client c : clients) {
+				try {
+					Channel ch = c.getChannel();
+					if (isTextWSChannel(ch)) {
+						if (textFrame == null)
+							textFrame = new TextWebSocketFrame(JSON.toJSONString(msg));
+						c.write(textFrame.retainedDuplicate(), false);
+					} else {
+						// The encoded buffer passes through the encoder of the
+						// channel directly.
+						WireFormat format = WireFormat.of(ch);
+						ByteBuf buf = encodeds.get(format);
+						if (buf == null)
+							encodeds.put(format, (buf = TransportMessageEncoder.encode(ch.alloc(), (Message) msg, format)));
+						c.write(buf.retainedDuplicate(), false);
+					}
+				} catch (Exception e) {
+					logger.error("The execution of the Push task failed. client=" + c, e);
+				}
+			}
+			// Write then flush once.
+			for (Client c : clients)
+				c.flush();
+			if (logger.isDebugEnabled())
+				logger.debug("Sent group msg. toGroupId={}, clients={}, formats={}, msg={}", toGroupId, clients.size(),
+						encodeds.keySet(), msg);
+		} finally {
+			if (textFrame != null)
+				textFrame.release();
+			for (ByteBuf buf : encodeds.values())
+				buf.release();
+		}
 	}
 
 	/**
@@ -107,28 +161,36 @@ public class TransportProcessors {
 	 *            client object.
 	 * @param msg
 	 *            Target push message.
+	 * @return The write future, or null if failed before writing.
 	 */
-	public static void sent(final Client c, final Object msg) {
+	public static ChannelFuture sent(final Client c, final Object msg) {
+		ChannelFuture cf = null;
 		try {
-			// 1.1 The target client is a browser (WebSocket).
-			if (isWSChannel(c)) {
-				TextWebSocketFrame frame = new TextWebSocketFrame(JSON.toJSONString(msg));
-				c.write(frame);
+			// 1.1 The target client is a browser (WebSocket text mode).
+			if (isTextWSChannel(c.getChannel())) {
+				String text = JSON.toJSONString(msg);
 				if (logger.isDebugEnabled())
-					logger.debug("Sent msg to device(Browser). client={}, msg={}", c.asText(), JSON.toJSONString(msg));
+					logger.debug("Sent msg to device(Browser). client={}, msg={}", c.asText(), text);
+				cf = c.write(new TextWebSocketFrame(text));
+				// Serialized, release(recycle) the message.
+				if (msg instanceof Message)
+					((Message) msg).release();
 			}
 			// 1.2 The target client is the background service
 			// (Provider/Android, etc., using custom protocol).
 			else {
-				c.write(msg);
+				// Note: The encoder will release(recycle) the message, so it
+				// can't be referenced after writing.
 				if (logger.isDebugEnabled())
 					logger.debug("Sent msg to device(Non-Browser). client={}, msg={}", c.asText(),
 							JSON.toJSONString(msg));
+				cf = c.write(msg);
 			}
 
 		} catch (Exception e) {
 			logger.error("The execution of the Push task failed. client=" + c, e);
 		}
+		return cf;
 	}
 
 	/**
@@ -152,6 +214,17 @@ public class TransportProcessors {
 		return (channel != null && channel.pipeline().context(WebSocketServerProtocolHandler.class) != null);
 	}
 
+	/**
+	 * Check the WebSocket channel of the text(JSON) mode, the binary mode
+	 * uses the same codec as the RPC channel.
+	 * 
+	 * @param channel
+	 * @return
+	 */
+	public static boolean isTextWSChannel(Channel channel) {
+		return isWSChannel(channel) && !BinaryWSFrameCodec.isBinary(channel);
+	}
+
 	/**
 	 * Get the channel repository instance.
 	 * 
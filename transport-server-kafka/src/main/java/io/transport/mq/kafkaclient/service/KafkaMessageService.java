@@ -1,6 +1,13 @@
 package io.transport.mq.kafkaclient.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
 
@@ -22,6 +29,8 @@ import io.transport.common.utils.exception.Exceptions;
 import io.transport.common.utils.exception.TransportException;
 import io.transport.core.config.Configuration;
 import io.transport.core.protocol.message.internal.TransportAckRespMessage;
+import io.transport.core.protocol.message.internal.TransportBatchAckRespMessage;
+import io.transport.core.protocol.message.internal.TransportBatchMessage;
 import io.transport.core.protocol.message.internal.TransportMessage;
 import io.transport.core.utils.TransportProcessors;
 import io.transport.mq.MessageService;
@@ -67,6 +76,12 @@ public class KafkaMessageService implements MessageService {
 		if (this.kafkaTemplate == null)
 			throw new TransportException("It shouldn't be here, because kafkaTemplate is not running.");
 
+		// Batch message.
+		if (msg instanceof TransportBatchMessage) {
+			this.publishBatch((TransportBatchMessage) msg);
+			return;
+		}
+
 		if (msg != null && msg instanceof TransportMessage) {
 			final TransportMessage tmsg = (TransportMessage) msg;
 			final String tmsg0 = JSON.toJSONString(msg);
@@ -118,6 +133,73 @@ public class KafkaMessageService implements MessageService {
 			throw new KafkaProducerException("Illegal type message. " + msg);
 	}
 
+	/**
+	 * Publish the batch messages to broker in one go(the records are
+	 * accumulated by the producer), and the batch ack is sent after all the
+	 * records have been sent.
+	 * 
+	 * @param batch
+	 */
+	private void publishBatch(TransportBatchMessage batch) {
+		final List<TransportMessage> tmsgs = batch.getMessages();
+		final List<String> tmsgs0 = new ArrayList<>(tmsgs.size());
+		for (TransportMessage tmsg : tmsgs) {
+			// 1.1 Save rowKey prefix temporary to redis.
+			this.persistentService.saveTmpRowkey(tmsg.getMsgId(), tmsg.getFromDeviceId(), tmsg.getToDeviceId(),
+					tmsg.getToGroupId());
+			tmsgs0.add(JSON.toJSONString(tmsg));
+		}
+		if (logger.isDebugEnabled())
+			logger.debug("New batch message enqueued. {}", tmsgs0);
+
+		// 1.2 Define.
+		final String topic = TopicType.t_push;
+		// Random partition.
+		final int partition = this.kafkaConf.getProducerConf().randomPartition();
+		// 1.3 Asynchronous to broker message.
+		if (this.kafkaConf.getProducerConf().isBrokerAsync()) {
+			// 1.4 Direct reply send batch ack.
+			this.sentAck(batch);
+			// 1.5 Send to kafka broker, no callback.
+			for (String tmsg0 : tmsgs0)
+				this.kafkaTemplate.send(topic, partition, tmsg0);
+		}
+		// 2.1 Synchronous to broker and sent batch ACK.
+		else {
+			this.kafkaTemplate.execute(new ProducerCallback<String, String, Void>() {
+				@Override
+				public Void doInKafka(Producer<String, String> producer) {
+					final AtomicInteger remaining = new AtomicInteger(tmsgs.size());
+					final List<TransportMessage> sents = Collections.synchronizedList(new ArrayList<>(tmsgs.size()));
+					for (int i = 0; i < tmsgs.size(); i++) {
+						final TransportMessage tmsg = tmsgs.get(i);
+						// Define producer record.
+						ProducerRecord<String, String> record = new ProducerRecord<String, String>(topic, partition,
+								null, tmsgs0.get(i));
+						// Send to broker.
+						producer.send(record, (RecordMetadata meta, Exception e) -> {
+							if (e == null)
+								sents.add(tmsg);
+							else
+								logger.error("Producer to Kafka broker failure. msgId=" + tmsg.getMsgId(), e);
+
+							// 3.3 Reply batch ack of the sent messages(the
+							// failures are resent by the client since no ack).
+							if (remaining.decrementAndGet() == 0 && !sents.isEmpty()) {
+								try {
+									sentAck(new TransportBatchMessage(new ArrayList<>(sents)));
+								} catch (Exception e1) {
+									Exceptions.defaultPrintErr(logger, e1);
+								}
+							}
+						});
+					}
+					return null;
+				}
+			});
+		}
+	}
+
 	@Override
 	public void receivedAck(int msgId) {
 		if (logger.isInfoEnabled())
@@ -156,17 +238,42 @@ public class KafkaMessageService implements MessageService {
 
 	@Override
 	public void sentAck(Object msg) {
+		// Batch ack, grouped by the sender.
+		if (msg instanceof TransportBatchMessage) {
+			Map<String, TransportBatchAckRespMessage> acks = new LinkedHashMap<>();
+			for (TransportMessage tmsg : ((TransportBatchMessage) msg).getMessages()) {
+				TransportBatchAckRespMessage ack = acks.get(tmsg.getFromDeviceId());
+				if (ack == null)
+					acks.put(tmsg.getFromDeviceId(), (ack = TransportBatchAckRespMessage.newInstance()));
+				ack.addMsgId(tmsg.getMsgId());
+			}
+			for (Entry<String, TransportBatchAckRespMessage> ent : acks.entrySet()) {
+				if (logger.isDebugEnabled())
+					logger.debug("Echo batch ack message. {}", ent.getValue());
+
+				// Echo batch ack(recycled after sent).
+				TransportProcessors.sentMsg(ent.getKey(), ent.getValue());
+			}
+			return;
+		}
+
 		if (msg != null && msg instanceof TransportMessage) {
 			final TransportMessage tmsg = (TransportMessage) msg;
 			// 1.2 Echo客户端
-			TransportAckRespMessage ack = new TransportAckRespMessage(tmsg.getMsgId());
-			// Echo ack.
-			TransportProcessors.sentMsg(tmsg.getFromDeviceId(), ack);
-
+			TransportAckRespMessage ack = TransportAckRespMessage.newInstance(tmsg.getMsgId());
 			if (logger.isDebugEnabled())
 				logger.debug("Echo ack message. {}", ack);
+
+			// Echo ack(recycled after sent).
+			TransportProcessors.sentMsg(tmsg.getFromDeviceId(), ack);
 		} else
 			throw new KafkaProducerException("Illegal type message. " + msg);
 	}
 
+	@Override
+	public void flush() {
+		if (this.kafkaTemplate != null)
+			this.kafkaTemplate.flush();
+	}
+
 }
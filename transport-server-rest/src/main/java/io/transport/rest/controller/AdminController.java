@@ -3,10 +3,12 @@ package io.transport.rest.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.transport.common.bean.Message;
 import io.transport.common.bean.ChannelMetricsInfo;
+import io.transport.core.DrainService;
 import io.transport.core.MonitorService;
 
 @RestController
@@ -15,6 +17,8 @@ public class AdminController extends BasicController {
 
 	@Autowired
 	private MonitorService monitorService;
+	@Autowired
+	private DrainService drainService;
 	@Value("${spring.application.name:}")
 	private String nodeName;
 
@@ -27,4 +31,22 @@ public class AdminController extends BasicController {
 		return info;
 	}
 
+	/**
+	 * Drain the local node(rolling restart), the connected clients are
+	 * redirected to the other active nodes in waves.
+	 * 
+	 * @return
+	 */
+	@RequestMapping(value = "drain", method = RequestMethod.POST, produces = "application/json;charset=UTF-8")
+	public Message drain() {
+		Message ret = new Message();
+		if (!this.drainService.drain()) {
+			ret.setCode("1");
+			ret.setMsg("Node `" + this.nodeName + "` is already draining.");
+		} else
+			logger.warn("Draining the node `{}`.", this.nodeName);
+
+		return ret;
+	}
+
 }